@@ -0,0 +1,85 @@
+package com.sikhshan.config;
+
+import com.sikhshan.service.AuditLogWriter;
+import com.sikhshan.service.ChatMembershipCache;
+import com.sikhshan.service.ChatMessagePersister;
+import com.sikhshan.service.JwtService;
+import com.sikhshan.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the counters the audit and chat writers, the token cache and the chat membership cache
+ * already keep as Micrometer meters, so they appear on /actuator/prometheus next to the HTTP,
+ * Hikari and JVM metrics.
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ChatMessagePersister chatMessagePersister;
+
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("audit.writer.queue.depth", auditLogWriter, AuditLogWriter::getQueueDepth)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("audit.writer.events", auditLogWriter, AuditLogWriter::getWrittenCount)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("audit.writer.events", auditLogWriter, AuditLogWriter::getDroppedCount)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("audit.writer.events", auditLogWriter, AuditLogWriter::getFailedCount)
+                .tag("result", "failed")
+                .register(registry);
+
+        Gauge.builder("chat.writer.queue.depth", chatMessagePersister, ChatMessagePersister::getQueueDepth)
+                .description("Broadcast chat messages waiting to be stored")
+                .register(registry);
+        FunctionCounter.builder("chat.writer.messages", chatMessagePersister, ChatMessagePersister::getWrittenCount)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("chat.writer.messages", chatMessagePersister, ChatMessagePersister::getFailedCount)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("chat.writer.retries", chatMessagePersister, ChatMessagePersister::getRetriedCount)
+                .register(registry);
+
+        Gauge.builder("chat.membership.cache.size", chatMembershipCache, ChatMembershipCache::size)
+                .register(registry);
+        FunctionCounter.builder("chat.membership.cache.requests", chatMembershipCache, ChatMembershipCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("chat.membership.cache.requests", chatMembershipCache, ChatMembershipCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("chat.membership.cache.evictions", chatMembershipCache, ChatMembershipCache::getEvictionCount)
+                .register(registry);
+
+        VerifiedTokenCache tokenCache = jwtService.getTokenCache();
+        Gauge.builder("jwt.token.cache.size", tokenCache, VerifiedTokenCache::size)
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache.requests", tokenCache, VerifiedTokenCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache.requests", tokenCache, VerifiedTokenCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache.evictions", tokenCache, VerifiedTokenCache::getEvictionCount)
+                .register(registry);
+    }
+}
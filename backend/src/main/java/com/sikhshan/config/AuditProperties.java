@@ -0,0 +1,190 @@
+package com.sikhshan.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    private Writer writer = new Writer();
+    private Retention retention = new Retention();
+    private Export export = new Export();
+
+    public Writer getWriter() {
+        return writer;
+    }
+
+    public void setWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public Retention getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Retention retention) {
+        this.retention = retention;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public void setExport(Export export) {
+        this.export = export;
+    }
+
+    /**
+     * What the interceptor does when the audit queue cannot keep up
+     */
+    public enum BackpressurePolicy {
+        BLOCK,       // wait up to blockTimeoutMs for space, then drop the new event
+        DROP_OLDEST, // evict the oldest queued event to make room
+        SAMPLE       // above half capacity keep only one in sampleRate events
+    }
+
+    public static class Writer {
+        private int queueCapacity = 10000;
+        private int batchSize = 200;
+        private long flushIntervalMs = 500;
+        private BackpressurePolicy backpressure = BackpressurePolicy.DROP_OLDEST;
+        private long blockTimeoutMs = 50;
+        private int sampleRate = 10;
+        private long shutdownTimeoutMs = 5000;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public BackpressurePolicy getBackpressure() {
+            return backpressure;
+        }
+
+        public void setBackpressure(BackpressurePolicy backpressure) {
+            this.backpressure = backpressure;
+        }
+
+        public long getBlockTimeoutMs() {
+            return blockTimeoutMs;
+        }
+
+        public void setBlockTimeoutMs(long blockTimeoutMs) {
+            this.blockTimeoutMs = blockTimeoutMs;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public long getShutdownTimeoutMs() {
+            return shutdownTimeoutMs;
+        }
+
+        public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+            this.shutdownTimeoutMs = shutdownTimeoutMs;
+        }
+    }
+
+    public static class Retention {
+        private boolean enabled = true;
+        private int days = 90;
+        private String cron = "0 30 3 * * *";
+        private int chunkSize = 5000;
+        private long throttleMs = 100;
+        private int partitionMonthsAhead = 3;
+        private String partitionCron = "0 0 3 * * *";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public void setDays(int days) {
+            this.days = days;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getThrottleMs() {
+            return throttleMs;
+        }
+
+        public void setThrottleMs(long throttleMs) {
+            this.throttleMs = throttleMs;
+        }
+
+        public int getPartitionMonthsAhead() {
+            return partitionMonthsAhead;
+        }
+
+        public void setPartitionMonthsAhead(int partitionMonthsAhead) {
+            this.partitionMonthsAhead = partitionMonthsAhead;
+        }
+
+        public String getPartitionCron() {
+            return partitionCron;
+        }
+
+        public void setPartitionCron(String partitionCron) {
+            this.partitionCron = partitionCron;
+        }
+    }
+
+    public static class Export {
+        private long timeoutMs = 1800000;
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+}
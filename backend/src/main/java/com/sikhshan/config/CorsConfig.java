@@ -1,5 +1,6 @@
 package com.sikhshan.config;
 
+import com.sikhshan.filter.CorrelationIdFilter;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,6 +14,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://127.0.0.1:5500", "http://localhost:3000")
                 .allowedMethods("*")
                 .allowedHeaders("*")
+                .exposedHeaders(CorrelationIdFilter.HEADER)
                 .allowCredentials(false);
         
         // Add CORS for WebSocket endpoints
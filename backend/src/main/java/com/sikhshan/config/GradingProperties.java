@@ -0,0 +1,58 @@
+package com.sikhshan.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "grading")
+public class GradingProperties {
+
+    private Regrade regrade = new Regrade();
+
+    public Regrade getRegrade() {
+        return regrade;
+    }
+
+    public void setRegrade(Regrade regrade) {
+        this.regrade = regrade;
+    }
+
+    public static class Regrade {
+        private int threads = 4;
+        private int chunkSize = 250;
+        private long jobRetentionMs = 3600000;
+        private int queueCapacity = 1000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getJobRetentionMs() {
+            return jobRetentionMs;
+        }
+
+        public void setJobRetentionMs(long jobRetentionMs) {
+            this.jobRetentionMs = jobRetentionMs;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.sikhshan.config;
+
+import com.sikhshan.dto.JwtClaims;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Resolves {@link JwtClaims} controller parameters from the claims verified by the
+ * AuthenticationFilter, so handlers never parse the bearer token again.
+ */
+@Component
+public class JwtClaimsArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return JwtClaims.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object claims = webRequest.getAttribute(JwtClaims.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (claims instanceof JwtClaims) {
+            return claims;
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid authentication token");
+    }
+}
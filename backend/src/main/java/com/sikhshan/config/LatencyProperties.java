@@ -0,0 +1,27 @@
+package com.sikhshan.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "latency")
+public class LatencyProperties {
+    private int reservoirSize = 1024;
+    private int maxRoutes = 500;
+
+    public int getReservoirSize() {
+        return reservoirSize;
+    }
+
+    public void setReservoirSize(int reservoirSize) {
+        this.reservoirSize = reservoirSize;
+    }
+
+    public int getMaxRoutes() {
+        return maxRoutes;
+    }
+
+    public void setMaxRoutes(int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sikhshan.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector;
+ * Hibernate instantiates it itself, so the counter is a static thread-local that
+ * {@link com.sikhshan.interceptor.RequestMetricsInterceptor} resets and reads per request.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
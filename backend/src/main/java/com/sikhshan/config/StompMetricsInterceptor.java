@@ -0,0 +1,40 @@
+package com.sikhshan.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts STOMP frames passing through one client channel, tagged by direction and message type.
+ * Counters are created up front so the per-message cost is a map lookup and an increment.
+ */
+public class StompMetricsInterceptor implements ChannelInterceptor {
+
+    private final Map<SimpMessageType, Counter> counters = new EnumMap<>(SimpMessageType.class);
+
+    public StompMetricsInterceptor(MeterRegistry meterRegistry, String direction) {
+        for (SimpMessageType type : SimpMessageType.values()) {
+            counters.put(type, Counter.builder("stomp.messages")
+                    .description("STOMP messages handled by the WebSocket broker")
+                    .tag("direction", direction)
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type != null) {
+            counters.get(type).increment();
+        }
+        return message;
+    }
+}
@@ -1,24 +1,36 @@
 package com.sikhshan.config;
 
+import com.sikhshan.filter.CorrelationIdFilter;
 import com.sikhshan.interceptor.AuditLogInterceptor;
+import com.sikhshan.interceptor.RequestMetricsInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
     @Autowired
     private AuditLogInterceptor auditLogInterceptor;
 
+    @Autowired
+    private RequestMetricsInterceptor requestMetricsInterceptor;
+
+    @Autowired
+    private JwtClaimsArgumentResolver jwtClaimsArgumentResolver;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000", "http://127.0.0.1:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(CorrelationIdFilter.HEADER)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -33,5 +45,13 @@ public class WebConfig implements WebMvcConfigurer {
                     "/api/auth/register",  // Exclude register to avoid logging before user is created
                     "/api/chat/**"         // Exclude chat endpoints to avoid issues
                 );
+
+        registry.addInterceptor(requestMetricsInterceptor)
+                .addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(jwtClaimsArgumentResolver);
     }
-} 
\ No newline at end of file
+}
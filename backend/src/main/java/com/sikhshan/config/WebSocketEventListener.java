@@ -1,6 +1,6 @@
 package com.sikhshan.config;
 
-import com.sikhshan.service.ChatService;
+import com.sikhshan.service.PresenceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +16,7 @@ public class WebSocketEventListener {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketEventListener.class);
     
     @Autowired
-    private ChatService chatService;
+    private PresenceRegistry presenceRegistry;
     
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
@@ -30,10 +30,12 @@ public class WebSocketEventListener {
         if (userId != null) {
             try {
                 Long userIdLong = Long.parseLong(userId);
-                chatService.markUserOnline(userIdLong);
+                presenceRegistry.connect(userIdLong);
                 logger.info("User {} marked as online", userId);
             } catch (NumberFormatException e) {
                 logger.warn("Invalid user ID format: {}", userId);
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring connection for unknown user {}", userId);
             }
         }
     }
@@ -50,7 +52,7 @@ public class WebSocketEventListener {
         if (userId != null) {
             try {
                 Long userIdLong = Long.parseLong(userId);
-                chatService.markUserOffline(userIdLong);
+                presenceRegistry.disconnect(userIdLong);
                 logger.info("User {} marked as offline", userId);
             } catch (NumberFormatException e) {
                 logger.warn("Invalid user ID format: {}", userId);
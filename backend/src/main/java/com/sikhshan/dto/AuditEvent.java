@@ -0,0 +1,126 @@
+package com.sikhshan.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of a single audit entry, captured on the request thread
+ * and handed to the background audit writer.
+ */
+public final class AuditEvent {
+
+    private final LocalDateTime timestamp;
+    private final Long userId;
+    private final String username;
+    private final String action;
+    private final String details;
+    private final String status;
+    private final String ipAddress;
+    private final String userAgent;
+    private final String resourceType;
+    private final Long resourceId;
+    private final String oldValues;
+    private final String newValues;
+    private final String sessionId;
+    private final String requestMethod;
+    private final String requestUrl;
+    private final Integer responseStatus;
+    private final Long executionTime;
+    private final String errorMessage;
+
+    public AuditEvent(LocalDateTime timestamp, Long userId, String username, String action, String details,
+                      String status, String ipAddress, String userAgent, String resourceType, Long resourceId,
+                      String oldValues, String newValues, String sessionId, String requestMethod,
+                      String requestUrl, Integer responseStatus, Long executionTime, String errorMessage) {
+        this.timestamp = timestamp;
+        this.userId = userId;
+        this.username = username;
+        this.action = action;
+        this.details = details;
+        this.status = status;
+        this.ipAddress = ipAddress;
+        this.userAgent = userAgent;
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+        this.sessionId = sessionId;
+        this.requestMethod = requestMethod;
+        this.requestUrl = requestUrl;
+        this.responseStatus = responseStatus;
+        this.executionTime = executionTime;
+        this.errorMessage = errorMessage;
+    }
+
+    // Getters
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public String getOldValues() {
+        return oldValues;
+    }
+
+    public String getNewValues() {
+        return newValues;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getRequestMethod() {
+        return requestMethod;
+    }
+
+    public String getRequestUrl() {
+        return requestUrl;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public Long getExecutionTime() {
+        return executionTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
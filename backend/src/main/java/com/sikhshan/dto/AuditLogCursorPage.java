@@ -0,0 +1,41 @@
+package com.sikhshan.dto;
+
+import java.util.List;
+
+/**
+ * One page of audit logs from keyset pagination. Pass nextCursor back as the
+ * cursor parameter to fetch the following page.
+ */
+public class AuditLogCursorPage {
+    private List<AuditLogResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements; // null unless requested with includeTotal=true
+
+    public AuditLogCursorPage() {}
+
+    public AuditLogCursorPage(List<AuditLogResponse> content, int size, boolean hasNext, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    // Getters and Setters
+    public List<AuditLogResponse> getContent() { return content; }
+    public void setContent(List<AuditLogResponse> content) { this.content = content; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+}
@@ -0,0 +1,45 @@
+package com.sikhshan.dto;
+
+import java.security.Principal;
+
+/**
+ * Lightweight, immutable principal resolved from a verified JWT.
+ * Published as the request's "currentUser" attribute instead of a JPA User entity.
+ */
+public final class AuthenticatedUser implements Principal {
+
+    public static final String REQUEST_ATTRIBUTE = "currentUser";
+
+    private final Long id;
+    private final String role;
+    private final String email;
+
+    public AuthenticatedUser(Long id, String role, String email) {
+        this.id = id;
+        this.role = role;
+        this.email = email;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", role=" + role + ", email=" + email + "}";
+    }
+}
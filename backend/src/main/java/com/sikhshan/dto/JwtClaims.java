@@ -0,0 +1,48 @@
+package com.sikhshan.dto;
+
+import java.time.Instant;
+
+/**
+ * Verified claims of a bearer token. Parsed once per request by the
+ * AuthenticationFilter and stored as a request attribute.
+ */
+public final class JwtClaims {
+
+    public static final String REQUEST_ATTRIBUTE = "jwtClaims";
+
+    private final Long userId;
+    private final String role;
+    private final String email;
+    private final Instant expiresAt;
+    // Built once with the claims, so cached tokens publish the same principal without allocating
+    private final AuthenticatedUser principal;
+
+    public JwtClaims(Long userId, String role, String email, Instant expiresAt) {
+        this.userId = userId;
+        this.role = role;
+        this.email = email;
+        this.expiresAt = expiresAt;
+        this.principal = new AuthenticatedUser(userId, role, email);
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+}
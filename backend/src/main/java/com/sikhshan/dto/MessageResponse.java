@@ -6,6 +6,7 @@ public class MessageResponse {
     
     private Long id;
     private Long chatRoomId;
+    private Long sequence;
     private SenderInfo sender;
     private String content;
     private String messageType;
@@ -45,6 +46,14 @@ public class MessageResponse {
         this.chatRoomId = chatRoomId;
     }
     
+    public Long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+    
     public SenderInfo getSender() {
         return sender;
     }
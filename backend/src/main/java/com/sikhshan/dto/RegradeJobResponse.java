@@ -0,0 +1,59 @@
+package com.sikhshan.dto;
+
+import java.time.LocalDateTime;
+
+public class RegradeJobResponse {
+    private String jobId;
+    private Long courseId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private int totalStudents;
+    private int processedStudents;
+    private int totalChunks;
+    private int completedChunks;
+    private int failedChunks;
+    private long elapsedMs;
+    private double studentsPerSecond;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getTotalStudents() { return totalStudents; }
+    public void setTotalStudents(int totalStudents) { this.totalStudents = totalStudents; }
+
+    public int getProcessedStudents() { return processedStudents; }
+    public void setProcessedStudents(int processedStudents) { this.processedStudents = processedStudents; }
+
+    public int getTotalChunks() { return totalChunks; }
+    public void setTotalChunks(int totalChunks) { this.totalChunks = totalChunks; }
+
+    public int getCompletedChunks() { return completedChunks; }
+    public void setCompletedChunks(int completedChunks) { this.completedChunks = completedChunks; }
+
+    public int getFailedChunks() { return failedChunks; }
+    public void setFailedChunks(int failedChunks) { this.failedChunks = failedChunks; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public double getStudentsPerSecond() { return studentsPerSecond; }
+    public void setStudentsPerSecond(double studentsPerSecond) { this.studentsPerSecond = studentsPerSecond; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -17,7 +17,9 @@ public class WebSocketMessage {
         USER_OFFLINE,
         TYPING_START,
         TYPING_STOP,
-        MESSAGE_READ
+        MESSAGE_READ,
+        MESSAGE_PERSISTED,
+        MESSAGE_FAILED
     }
     
     // Default constructor
@@ -85,6 +87,14 @@ public class WebSocketMessage {
         return new WebSocketMessage(MessageType.NEW_MESSAGE.name(), message, message.getChatRoomId(), message.getSender().getId());
     }
     
+    public static WebSocketMessage messagePersisted(MessageResponse message) {
+        return new WebSocketMessage(MessageType.MESSAGE_PERSISTED.name(), message, message.getChatRoomId(), message.getSender().getId());
+    }
+    
+    public static WebSocketMessage messageFailed(MessageResponse message) {
+        return new WebSocketMessage(MessageType.MESSAGE_FAILED.name(), message, message.getChatRoomId(), message.getSender().getId());
+    }
+    
     public static WebSocketMessage messageDeleted(Long messageId, Long chatRoomId, Long senderId) {
         return new WebSocketMessage(MessageType.MESSAGE_DELETED.name(), messageId, chatRoomId, senderId);
     }
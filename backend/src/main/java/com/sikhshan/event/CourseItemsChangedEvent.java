@@ -0,0 +1,19 @@
+package com.sikhshan.event;
+
+/**
+ * Published when assignments or quizzes are created or deleted, or their points change, so
+ * the course totals held in the stored course grades can be refreshed. The refresh runs as a
+ * background regrade after the change commits (see RegradeJobService).
+ */
+public final class CourseItemsChangedEvent {
+
+    private final Long courseId;
+
+    public CourseItemsChangedEvent(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.sikhshan.event;
+
+/**
+ * Published when a graded item changes a student's earned points in a course: a submission is
+ * graded or deleted, or a quiz attempt is submitted or rescored. The listener recomputes that
+ * student's points for the item type from the stored submissions or attempts.
+ */
+public final class GradeChangedEvent {
+
+    public enum ItemType {
+        ASSIGNMENT,
+        QUIZ
+    }
+
+    private final Long studentId;
+    private final Long courseId;
+    private final ItemType itemType;
+
+    public GradeChangedEvent(Long studentId, Long courseId, ItemType itemType) {
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.itemType = itemType;
+    }
+
+    // Getters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public ItemType getItemType() {
+        return itemType;
+    }
+}
@@ -1,7 +1,9 @@
 package com.sikhshan.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sikhshan.model.User;
+import com.sikhshan.dto.AuthenticatedUser;
+import com.sikhshan.dto.JwtClaims;
+import com.sikhshan.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +21,9 @@ public class AuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JwtService jwtService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -29,11 +34,14 @@ public class AuthenticationFilter extends OncePerRequestFilter {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
                 
-                // For now, we'll create a simple user object
-                // In a real implementation, you would decode the JWT token
-                User currentUser = extractUserFromToken(token);
-                if (currentUser != null) {
-                    request.setAttribute("currentUser", currentUser);
+                // Verify the token once; controllers read the claims and downstream
+                // components (audit logging, authorization) read the principal
+                try {
+                    JwtClaims claims = jwtService.parseClaims(token);
+                    request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE, claims);
+                    request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, claims.getPrincipal());
+                } catch (Exception e) {
+                    System.err.println("Invalid JWT token: " + e.getMessage());
                 }
             }
         } catch (Exception e) {
@@ -44,26 +52,6 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private User extractUserFromToken(String token) {
-        try {
-            // This is a simplified implementation
-            // In a real app, you would decode the JWT token and extract user info
-            
-            // For now, we'll create a mock user based on the token
-            // You can replace this with actual JWT decoding logic
-            if (token != null && !token.isEmpty()) {
-                User user = new User();
-                user.setId(1L); // You would get this from the token
-                user.setEmail("user@example.com"); // You would get this from the token
-                user.setName("Test User"); // You would get this from the token
-                return user;
-            }
-        } catch (Exception e) {
-            System.err.println("Error extracting user from token: " + e.getMessage());
-        }
-        return null;
-    }
-
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         // Skip authentication for certain paths
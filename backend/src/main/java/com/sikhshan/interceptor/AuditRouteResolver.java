@@ -0,0 +1,203 @@
+package com.sikhshan.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the audit action, resource type and resource id of a request.
+ *
+ * Requests are keyed by the route pattern Spring MVC matched (e.g. /api/courses/{id}), so each
+ * method and pattern pair is compiled once: path variables are dropped to look up the action,
+ * the resource type is found by path prefix, and the names of the path variables that can hold
+ * the resource id are remembered. Per request this is two map lookups and a digit check on the
+ * already-extracted path variables, with no string splitting or regular expressions.
+ */
+public class AuditRouteResolver {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private static final Map<String, String> ACTION_MAPPING = new HashMap<>();
+    private static final Map<String, String> RESOURCE_MAPPING = new HashMap<>();
+
+    static {
+        // User actions
+        ACTION_MAPPING.put("POST /api/auth/login", "LOGIN");
+        ACTION_MAPPING.put("POST /api/auth/logout", "LOGOUT");
+        ACTION_MAPPING.put("POST /api/auth/register", "CREATE_USER");
+        ACTION_MAPPING.put("PUT /api/users", "UPDATE_USER");
+        ACTION_MAPPING.put("DELETE /api/users", "DELETE_USER");
+        ACTION_MAPPING.put("PUT /api/users/password", "PASSWORD_CHANGE");
+        ACTION_MAPPING.put("PUT /api/users/profile", "PROFILE_UPDATE");
+
+        // Course actions
+        ACTION_MAPPING.put("POST /api/courses", "CREATE_COURSE");
+        ACTION_MAPPING.put("PUT /api/courses", "UPDATE_COURSE");
+        ACTION_MAPPING.put("DELETE /api/courses", "DELETE_COURSE");
+        ACTION_MAPPING.put("POST /api/courses/enroll", "ENROLL_COURSE");
+        ACTION_MAPPING.put("DELETE /api/courses/enroll", "UNENROLL_COURSE");
+
+        // Assignment actions
+        ACTION_MAPPING.put("POST /api/assignments", "CREATE_ASSIGNMENT");
+        ACTION_MAPPING.put("PUT /api/assignments", "UPDATE_ASSIGNMENT");
+        ACTION_MAPPING.put("DELETE /api/assignments", "DELETE_ASSIGNMENT");
+        ACTION_MAPPING.put("POST /api/assignments/submit", "SUBMIT_ASSIGNMENT");
+        ACTION_MAPPING.put("PUT /api/assignments/grade", "GRADE_ASSIGNMENT");
+
+        // Quiz actions
+        ACTION_MAPPING.put("POST /api/quizzes", "CREATE_QUIZ");
+        ACTION_MAPPING.put("PUT /api/quizzes", "UPDATE_QUIZ");
+        ACTION_MAPPING.put("DELETE /api/quizzes", "DELETE_QUIZ");
+        ACTION_MAPPING.put("POST /api/quizzes/attempt", "TAKE_QUIZ");
+        ACTION_MAPPING.put("PUT /api/quizzes/grade", "GRADE_QUIZ");
+
+        // File actions
+        ACTION_MAPPING.put("POST /api/files/upload", "UPLOAD_FILE");
+        ACTION_MAPPING.put("DELETE /api/files", "DELETE_FILE");
+
+        // System actions
+        ACTION_MAPPING.put("POST /api/system/backup", "SYSTEM_BACKUP");
+        ACTION_MAPPING.put("POST /api/system/restore", "SYSTEM_RESTORE");
+
+        // Resource type mapping
+        RESOURCE_MAPPING.put("/api/users", "USER");
+        RESOURCE_MAPPING.put("/api/courses", "COURSE");
+        RESOURCE_MAPPING.put("/api/assignments", "ASSIGNMENT");
+        RESOURCE_MAPPING.put("/api/quizzes", "QUIZ");
+        RESOURCE_MAPPING.put("/api/files", "FILE");
+        RESOURCE_MAPPING.put("/api/system", "SYSTEM");
+    }
+
+    /**
+     * The compiled audit metadata of one method and route pattern
+     */
+    public static final class Route {
+        private final String action;
+        private final String resourceType;
+        private final List<String> idVariables;
+
+        Route(String action, String resourceType, List<String> idVariables) {
+            this.action = action;
+            this.resourceType = resourceType;
+            this.idVariables = idVariables;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public String getResourceType() {
+            return resourceType;
+        }
+
+        /**
+         * The value of the last numeric path variable, or null if there is none
+         */
+        Long resolveResourceId(Map<String, String> uriVariables) {
+            for (int i = idVariables.size() - 1; i >= 0; i--) {
+                Long id = parseId(uriVariables.get(idVariables.get(i)));
+                if (id != null) {
+                    return id;
+                }
+            }
+            return null;
+        }
+    }
+
+    // pattern -> method -> route
+    private final Map<String, Map<String, Route>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Audit metadata of a request, from the route pattern Spring MVC matched when there is one
+     */
+    public Route resolve(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            // No handler matched (e.g. 404): compile the raw URI without caching it
+            return compile(request.getMethod(), request.getRequestURI());
+        }
+        return resolve(request.getMethod(), pattern.toString());
+    }
+
+    public Route resolve(String method, String pattern) {
+        return routes.computeIfAbsent(pattern, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> compile(m, pattern));
+    }
+
+    /**
+     * Resource id of a request resolved to the given route
+     */
+    @SuppressWarnings("unchecked")
+    public Long resolveResourceId(HttpServletRequest request, Route route) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map) {
+            return route.resolveResourceId((Map<String, String>) variables);
+        }
+        // No route pattern: fall back to the last path segment of the raw URI
+        String requestURI = request.getRequestURI();
+        return parseId(requestURI.substring(requestURI.lastIndexOf('/') + 1));
+    }
+
+    static Route compile(String method, String pattern) {
+        // Drop path variables: PUT /api/courses/{id} is looked up as PUT /api/courses
+        StringBuilder path = new StringBuilder(pattern.length());
+        List<String> idVariables = new ArrayList<>();
+        int start = 1;
+        while (start <= pattern.length()) {
+            int end = pattern.indexOf('/', start);
+            if (end < 0) {
+                end = pattern.length();
+            }
+            String segment = pattern.substring(start, end);
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                String name = segment.substring(1, segment.length() - 1);
+                int colon = name.indexOf(':');
+                idVariables.add(colon >= 0 ? name.substring(0, colon) : name);
+            } else if (!segment.isEmpty()) {
+                path.append('/').append(segment);
+            }
+            start = end + 1;
+        }
+
+        String resourceType = resourceType(path.toString());
+        String action = ACTION_MAPPING.get(method + " " + path);
+        if (action == null) {
+            // For unmapped actions, create a generic action name
+            action = method + "_" + resourceType;
+        }
+        return new Route(action, resourceType, Collections.unmodifiableList(idVariables));
+    }
+
+    private static String resourceType(String path) {
+        String best = UNKNOWN;
+        int bestLength = -1;
+        for (Map.Entry<String, String> entry : RESOURCE_MAPPING.entrySet()) {
+            String prefix = entry.getKey();
+            if (prefix.length() > bestLength && path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                best = entry.getValue();
+                bestLength = prefix.length();
+            }
+        }
+        return best;
+    }
+
+    private static Long parseId(String value) {
+        if (value == null || value.isEmpty() || value.length() > 18) {
+            return null;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return Long.parseLong(value);
+    }
+}
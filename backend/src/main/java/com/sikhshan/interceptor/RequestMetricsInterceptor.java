@@ -0,0 +1,67 @@
+package com.sikhshan.interceptor;
+
+import com.sikhshan.config.StatementCountingInspector;
+import com.sikhshan.service.RouteLatencyRecorder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many SQL statements each API request issued, per route, and feeds request
+ * latency to the in-memory {@link RouteLatencyRecorder}.
+ *
+ * The Prometheus latency series itself comes from Spring Boot's http.server.requests timer.
+ */
+@Component
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_NANOS_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".startNanos";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RouteLatencyRecorder routeLatencyRecorder;
+
+    // "METHOD pattern" -> summary, registered once per route
+    private final Map<String, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+        StatementCountingInspector.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // Tag by route pattern, not raw URI, to keep the number of series bounded
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        String method = request.getMethod();
+        String route = method + " " + uri;
+
+        Object startNanos = request.getAttribute(START_NANOS_ATTRIBUTE);
+        if (startNanos instanceof Long) {
+            routeLatencyRecorder.record(route, request.getRequestURI(),
+                    response.getStatus(), System.nanoTime() - (Long) startNanos);
+        }
+
+        statementSummaries.computeIfAbsent(route, key -> DistributionSummary.builder("hibernate.statements.per.request")
+                        .description("SQL statements prepared while handling one request")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(StatementCountingInspector.current());
+    }
+}
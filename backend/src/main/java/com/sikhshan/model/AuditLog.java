@@ -14,8 +14,9 @@ public class AuditLog {
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
     
+    // No FK constraint: audit_logs may be range-partitioned, which MySQL does not allow with foreign keys
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = true)
+    @JoinColumn(name = "user_id", nullable = true, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
     
     @Column(name = "username", nullable = false)
@@ -0,0 +1,66 @@
+package com.sikhshan.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated audit log counter: number of events in one time bucket for one
+ * dimension value (e.g. action = LOGIN on 2025-01-01). Maintained by the audit writer.
+ */
+@Entity
+@Table(name = "audit_log_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_audit_log_rollup_bucket",
+               columnNames = {"granularity", "bucket_start", "dimension", "dimension_value"}))
+public class AuditLogRollup {
+    
+    public static final String MINUTE = "MINUTE";
+    public static final String DAY = "DAY";
+    
+    // Dimensions
+    public static final String TOTAL = "TOTAL";
+    public static final String ACTION = "ACTION";
+    public static final String STATUS = "STATUS";
+    public static final String USER = "USER";
+    public static final String RESOURCE_TYPE = "RESOURCE_TYPE";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "granularity", nullable = false, length = 10)
+    private String granularity; // MINUTE, DAY
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "dimension", nullable = false, length = 20)
+    private String dimension; // TOTAL, ACTION, STATUS, USER, RESOURCE_TYPE
+    
+    @Column(name = "dimension_value", nullable = false)
+    private String dimensionValue;
+    
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount = 0L;
+    
+    // Constructors
+    public AuditLogRollup() {}
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+    
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+    
+    public String getDimensionValue() { return dimensionValue; }
+    public void setDimensionValue(String dimensionValue) { this.dimensionValue = dimensionValue; }
+    
+    public Long getEventCount() { return eventCount; }
+    public void setEventCount(Long eventCount) { this.eventCount = eventCount; }
+}
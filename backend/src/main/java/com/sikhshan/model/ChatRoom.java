@@ -96,9 +96,9 @@ public class ChatRoom {
     
     // Helper method to get the other user in the chat
     public User getOtherUser(Long currentUserId) {
-        if (user1.getId() == currentUserId) {
+        if (user1.getId().equals(currentUserId)) {
             return user2;
-        } else if (user2.getId() == currentUserId) {
+        } else if (user2.getId().equals(currentUserId)) {
             return user1;
         }
         return null;
@@ -106,6 +106,6 @@ public class ChatRoom {
     
     // Helper method to check if a user is part of this chat room
     public boolean containsUser(Long userId) {
-        return user1.getId() == userId || user2.getId() == userId;
+        return user1.getId().equals(userId) || user2.getId().equals(userId);
     }
 } 
\ No newline at end of file
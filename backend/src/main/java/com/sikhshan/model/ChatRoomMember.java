@@ -0,0 +1,44 @@
+package com.sikhshan.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-user state of a chat room: the number of messages the user has not read yet.
+ * Kept in memory by UnreadCounterService and written here in the background.
+ */
+@Entity
+@Table(name = "chat_room_member",
+       uniqueConstraints = @UniqueConstraint(name = "uk_chat_room_member",
+               columnNames = {"chat_room_id", "user_id"}),
+       indexes = @Index(name = "idx_chat_room_member_user", columnList = "user_id"))
+public class ChatRoomMember {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "chat_room_id", nullable = false)
+    private Long chatRoomId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount = 0;
+    
+    // Constructors
+    public ChatRoomMember() {}
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getChatRoomId() { return chatRoomId; }
+    public void setChatRoomId(Long chatRoomId) { this.chatRoomId = chatRoomId; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public Integer getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(Integer unreadCount) { this.unreadCount = unreadCount; }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "course_grade")
+@Table(name = "course_grade",
+       uniqueConstraints = @UniqueConstraint(name = "unique_student_course",
+                                             columnNames = {"student_id", "course_id"}))
 public class CourseGrade {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
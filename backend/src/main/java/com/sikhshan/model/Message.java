@@ -5,7 +5,9 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "message")
+@Table(name = "message",
+       uniqueConstraints = @UniqueConstraint(name = "uk_message_room_sequence",
+                                             columnNames = {"chat_room_id", "room_sequence"}))
 public class Message {
     
     @Id
@@ -36,6 +38,10 @@ public class Message {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
+    // Per-room send order, assigned before the message is broadcast; null for older messages
+    @Column(name = "room_sequence")
+    private Long roomSequence;
+    
     @Column(name = "is_read", nullable = false)
     private Boolean isRead = false;
     
@@ -156,6 +162,14 @@ public class Message {
         this.deletedAt = deletedAt;
     }
     
+    public Long getRoomSequence() {
+        return roomSequence;
+    }
+    
+    public void setRoomSequence(Long roomSequence) {
+        this.roomSequence = roomSequence;
+    }
+    
     public User getDeletedBy() {
         return deletedBy;
     }
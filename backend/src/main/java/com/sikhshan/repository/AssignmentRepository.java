@@ -1,6 +1,7 @@
 package com.sikhshan.repository;
 
 import com.sikhshan.model.Assignment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,16 +10,34 @@ import java.util.List;
 import java.util.Optional;
 
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
+    // List queries fetch course and instructor in the same statement instead of one select per row
+    @Override
+    @EntityGraph(attributePaths = {"course", "instructor"})
+    List<Assignment> findAll();
+    
+    @EntityGraph(attributePaths = {"course", "instructor"})
     List<Assignment> findByCourseId(Long courseId);
+    
+    @EntityGraph(attributePaths = {"course", "instructor"})
     List<Assignment> findByInstructorId(Long instructorId);
+    
+    @EntityGraph(attributePaths = {"course", "instructor"})
     List<Assignment> findByCourseIdAndStatus(Long courseId, String status);
+    
+    @EntityGraph(attributePaths = {"course", "instructor"})
     List<Assignment> findByInstructorIdAndStatus(Long instructorId, String status);
     
+    @EntityGraph(attributePaths = {"course", "instructor"})
     @Query("SELECT a FROM Assignment a WHERE a.course.id = :courseId AND a.dueDate >= :now ORDER BY a.dueDate ASC")
     List<Assignment> findActiveAssignmentsByCourse(@Param("courseId") Long courseId, @Param("now") LocalDateTime now);
     
+    @EntityGraph(attributePaths = {"course", "instructor"})
     @Query("SELECT a FROM Assignment a WHERE a.course.id = :courseId AND a.dueDate < :now ORDER BY a.dueDate DESC")
     List<Assignment> findOverdueAssignmentsByCourse(@Param("courseId") Long courseId, @Param("now") LocalDateTime now);
     
     Optional<Assignment> findByIdAndStatus(Long id, String status);
-} 
\ No newline at end of file
+    
+    // Assignment count and total points for a course: a single row of (count, totalPoints)
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.totalPoints), 0) FROM Assignment a WHERE a.course.id = :courseId")
+    List<Object[]> getTotalsByCourseId(@Param("courseId") Long courseId);
+}
@@ -4,6 +4,7 @@ import com.sikhshan.model.AssignmentSubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +31,20 @@ public interface AssignmentSubmissionRepository extends JpaRepository<Assignment
     List<AssignmentSubmission> findByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
     
     Optional<AssignmentSubmission> findByAssignmentAndStudent(com.sikhshan.model.Assignment assignment, com.sikhshan.model.User student);
-} 
\ No newline at end of file
+    
+    // Submission and graded counts per assignment: rows of (assignmentId, submissionCount, gradedCount)
+    @Query("SELECT s.assignment.id, COUNT(s), SUM(CASE WHEN s.status LIKE '%GRADED%' THEN 1 ELSE 0 END) " +
+           "FROM AssignmentSubmission s WHERE s.assignment.id IN :assignmentIds GROUP BY s.assignment.id")
+    List<Object[]> countSubmissionsByAssignmentIds(@Param("assignmentIds") Collection<Long> assignmentIds);
+    
+    // Best graded points per (student, assignment) in a course: rows of (studentId, assignmentId, pointsEarned)
+    @Query("SELECT s.student.id, s.assignment.id, MAX(s.pointsEarned) FROM AssignmentSubmission s " +
+           "WHERE s.assignment.course.id = :courseId AND s.student.id IN :studentIds AND s.pointsEarned IS NOT NULL " +
+           "GROUP BY s.student.id, s.assignment.id")
+    List<Object[]> findBestPointsByCourseAndStudents(@Param("courseId") Long courseId, @Param("studentIds") Collection<Long> studentIds);
+    
+    // Graded submissions of an assignment as rows of (submissionId, pointsEarned), for bulk rescaling
+    @Query("SELECT s.id, s.pointsEarned FROM AssignmentSubmission s " +
+           "WHERE s.assignment.id = :assignmentId AND s.pointsEarned IS NOT NULL AND s.grade IS NOT NULL")
+    List<Object[]> findGradedPointsByAssignmentId(@Param("assignmentId") Long assignmentId);
+}
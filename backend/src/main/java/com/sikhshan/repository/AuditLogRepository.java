@@ -76,6 +76,50 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         Pageable pageable
     );
     
+    // Keyset page with the same filters: rows strictly after the (timestamp, id) cursor, newest first.
+    // Pageable only limits the rows; no count query is issued.
+    @Query("SELECT a FROM AuditLog a WHERE " +
+           "(:username IS NULL OR LOWER(a.username) LIKE LOWER(CONCAT('%', :username, '%'))) AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:status IS NULL OR a.status = :status) AND " +
+           "(:resourceType IS NULL OR a.resourceType = :resourceType) AND " +
+           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR a.timestamp <= :endDate) AND " +
+           "(:searchTerm IS NULL OR LOWER(a.details) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
+           "(a.timestamp < :cursorTimestamp OR (a.timestamp = :cursorTimestamp AND a.id < :cursorId)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findWithFiltersAfter(
+        @Param("username") String username,
+        @Param("action") String action,
+        @Param("status") String status,
+        @Param("resourceType") String resourceType,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("searchTerm") String searchTerm,
+        @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+    
+    // Total matching rows for the same filters (only computed when the caller asks for it)
+    @Query("SELECT COUNT(a) FROM AuditLog a WHERE " +
+           "(:username IS NULL OR LOWER(a.username) LIKE LOWER(CONCAT('%', :username, '%'))) AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:status IS NULL OR a.status = :status) AND " +
+           "(:resourceType IS NULL OR a.resourceType = :resourceType) AND " +
+           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR a.timestamp <= :endDate) AND " +
+           "(:searchTerm IS NULL OR LOWER(a.details) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    long countWithFilters(
+        @Param("username") String username,
+        @Param("action") String action,
+        @Param("status") String status,
+        @Param("resourceType") String resourceType,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("searchTerm") String searchTerm
+    );
+    
     // Get recent logs (last 24 hours)
     @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :startDate ORDER BY a.timestamp DESC")
     List<AuditLog> findRecentLogs(@Param("startDate") LocalDateTime startDate);
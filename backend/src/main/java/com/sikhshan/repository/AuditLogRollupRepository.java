@@ -0,0 +1,42 @@
+package com.sikhshan.repository;
+
+import com.sikhshan.model.AuditLogRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditLogRollupRepository extends JpaRepository<AuditLogRollup, Long> {
+    
+    // Totals per dimension value over all buckets of one granularity: rows of (value, count)
+    @Query("SELECT r.dimensionValue, SUM(r.eventCount) FROM AuditLogRollup r " +
+           "WHERE r.granularity = :granularity AND r.dimension = :dimension " +
+           "GROUP BY r.dimensionValue ORDER BY SUM(r.eventCount) DESC")
+    List<Object[]> sumByDimension(@Param("granularity") String granularity, @Param("dimension") String dimension);
+    
+    // Sum of one dimension value since a bucket start
+    @Query("SELECT COALESCE(SUM(r.eventCount), 0) FROM AuditLogRollup r " +
+           "WHERE r.granularity = :granularity AND r.dimension = :dimension " +
+           "AND r.dimensionValue = :value AND r.bucketStart >= :since")
+    long sumSince(@Param("granularity") String granularity, @Param("dimension") String dimension,
+                  @Param("value") String value, @Param("since") LocalDateTime since);
+    
+    // Most recent buckets of one dimension value, newest first
+    @Query("SELECT r FROM AuditLogRollup r WHERE r.granularity = :granularity AND r.dimension = :dimension " +
+           "AND r.dimensionValue = :value ORDER BY r.bucketStart DESC")
+    List<AuditLogRollup> findRecentBuckets(@Param("granularity") String granularity, @Param("dimension") String dimension,
+                                          @Param("value") String value, Pageable pageable);
+    
+    // Drop buckets older than a cutoff
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuditLogRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteBucketsBefore(@Param("granularity") String granularity, @Param("before") LocalDateTime before);
+}
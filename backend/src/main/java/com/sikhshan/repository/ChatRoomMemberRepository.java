@@ -0,0 +1,17 @@
+package com.sikhshan.repository;
+
+import com.sikhshan.model.ChatRoomMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember, Long> {
+    
+    // Unread counters of all chat rooms of a user: rows of (chatRoomId, unreadCount)
+    @Query("SELECT m.chatRoomId, m.unreadCount FROM ChatRoomMember m WHERE m.userId = :userId")
+    List<Object[]> findUnreadCountsByUserId(@Param("userId") Long userId);
+}
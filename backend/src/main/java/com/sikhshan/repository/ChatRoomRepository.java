@@ -2,10 +2,12 @@ package com.sikhshan.repository;
 
 import com.sikhshan.model.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,12 +18,20 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     @Query("SELECT cr FROM ChatRoom cr WHERE (cr.user1.id = :user1Id AND cr.user2.id = :user2Id) OR (cr.user1.id = :user2Id AND cr.user2.id = :user1Id)")
     Optional<ChatRoom> findByUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
     
+    // Find the two participant ids of a chat room without loading the users
+    @Query("SELECT cr.user1.id, cr.user2.id FROM ChatRoom cr WHERE cr.id = :chatRoomId")
+    List<Object[]> findUserIdsById(@Param("chatRoomId") Long chatRoomId);
+    
+    // Ids of a user's chat rooms, without loading the rooms
+    @Query("SELECT cr.id FROM ChatRoom cr WHERE cr.user1.id = :userId OR cr.user2.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+    
     // Find all chat rooms for a user
     @Query("SELECT cr FROM ChatRoom cr WHERE cr.user1.id = :userId OR cr.user2.id = :userId ORDER BY cr.lastMessageAt DESC")
     List<ChatRoom> findByUserId(@Param("userId") Long userId);
     
-    // Find all chat rooms for a user with pagination
-    @Query("SELECT cr FROM ChatRoom cr WHERE cr.user1.id = :userId OR cr.user2.id = :userId ORDER BY cr.lastMessageAt DESC")
+    // Find all chat rooms for a user, with both participants fetched in the same query
+    @Query("SELECT cr FROM ChatRoom cr JOIN FETCH cr.user1 JOIN FETCH cr.user2 WHERE cr.user1.id = :userId OR cr.user2.id = :userId ORDER BY cr.lastMessageAt DESC")
     List<ChatRoom> findByUserIdOrderByLastMessageAtDesc(@Param("userId") Long userId);
     
     // Check if chat room exists between two users
@@ -31,4 +41,9 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     // Find chat rooms with unread messages for a user
     @Query("SELECT cr FROM ChatRoom cr WHERE (cr.user1.id = :userId OR cr.user2.id = :userId) AND EXISTS (SELECT m FROM Message m WHERE m.chatRoom = cr AND m.sender.id != :userId AND m.isRead = false)")
     List<ChatRoom> findChatRoomsWithUnreadMessages(@Param("userId") Long userId);
+    
+    // Move a chat room's last message time forward without loading the room
+    @Modifying
+    @Query("UPDATE ChatRoom cr SET cr.lastMessageAt = :lastMessageAt WHERE cr.id = :chatRoomId")
+    void updateLastMessageAt(@Param("chatRoomId") Long chatRoomId, @Param("lastMessageAt") LocalDateTime lastMessageAt);
 } 
\ No newline at end of file
@@ -3,11 +3,16 @@ package com.sikhshan.repository;
 import com.sikhshan.model.CourseGrade;
 import com.sikhshan.model.Course;
 import com.sikhshan.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +26,11 @@ public interface CourseGradeRepository extends JpaRepository<CourseGrade, Long>
     @Query("SELECT cg FROM CourseGrade cg WHERE cg.student.id = :studentId AND cg.course.id = :courseId")
     Optional<CourseGrade> findByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
     
+    // Same lookup with a row lock, for refreshing one student's grade
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT cg FROM CourseGrade cg WHERE cg.student.id = :studentId AND cg.course.id = :courseId")
+    Optional<CourseGrade> findForUpdateByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+    
     // Find all grades for a student
     List<CourseGrade> findByStudentOrderByCourseName(User student);
     
@@ -31,10 +41,20 @@ public interface CourseGradeRepository extends JpaRepository<CourseGrade, Long>
     @Query("SELECT cg FROM CourseGrade cg WHERE cg.student.id = :studentId AND cg.course.id = :courseId")
     List<CourseGrade> findByStudentIdAndCourseIdList(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
     
-    // Find all grades for a course by course ID
+    // Find all grades for a course by course ID (student and course fetched in the same statement)
+    @EntityGraph(attributePaths = {"student", "course", "course.instructor"})
     @Query("SELECT cg FROM CourseGrade cg WHERE cg.course.id = :courseId ORDER BY cg.student.name")
     List<CourseGrade> findByCourseId(@Param("courseId") Long courseId);
     
+    // Student IDs with a stored grade in a course, used to partition regrade jobs
+    @Query("SELECT cg.student.id FROM CourseGrade cg WHERE cg.course.id = :courseId ORDER BY cg.student.id")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") Long courseId);
+    
+    // Grades for a chunk of students in a course (student and course fetched in the same statement)
+    @EntityGraph(attributePaths = {"student", "course"})
+    @Query("SELECT cg FROM CourseGrade cg WHERE cg.course.id = :courseId AND cg.student.id IN :studentIds")
+    List<CourseGrade> findByCourseIdAndStudentIds(@Param("courseId") Long courseId, @Param("studentIds") Collection<Long> studentIds);
+    
     // Find all grades for a student by student ID
     @Query("SELECT cg FROM CourseGrade cg WHERE cg.student.id = :studentId ORDER BY cg.course.name")
     List<CourseGrade> findByStudentId(@Param("studentId") Long studentId);
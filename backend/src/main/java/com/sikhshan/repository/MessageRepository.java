@@ -10,15 +10,16 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     
-    // Find messages by chat room with pagination
-    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId ORDER BY m.createdAt DESC")
-    Page<Message> findByChatRoomIdOrderByCreatedAtDesc(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
+    // Find messages by chat room with pagination, newest first in send order
+    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId ORDER BY m.roomSequence DESC, m.id DESC")
+    Page<Message> findByChatRoomIdOrderByRoomSequenceDesc(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
     
     // Find messages by chat room (all messages)
     @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId ORDER BY m.createdAt ASC")
@@ -32,9 +33,16 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT COUNT(m) FROM Message m WHERE m.chatRoom.id = :chatRoomId AND m.sender.id != :userId AND m.isRead = false")
     Long countUnreadMessagesByChatRoomAndUser(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId);
     
-    // Find last message in a chat room
-    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId ORDER BY m.createdAt DESC, m.id DESC")
-    List<Message> findLastMessageByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+    // Find the last message of each chat room, with its sender, in one query.
+    // Messages are stored out of send order, so the last one is the room's highest sequence,
+    // read from the (chat_room_id, room_sequence) unique index.
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id IN :chatRoomIds AND m.roomSequence = " +
+           "(SELECT MAX(m2.roomSequence) FROM Message m2 WHERE m2.chatRoom = m.chatRoom)")
+    List<Message> findLastMessagesByChatRoomIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+    
+    // Highest sequence number assigned in a chat room, or null if none has been
+    @Query("SELECT MAX(m.roomSequence) FROM Message m WHERE m.chatRoom.id = :chatRoomId")
+    Long findMaxRoomSequenceByChatRoomId(@Param("chatRoomId") Long chatRoomId);
     
     // Find messages by sender
     @Query("SELECT m FROM Message m WHERE m.sender.id = :senderId ORDER BY m.createdAt DESC")
@@ -2,6 +2,9 @@ package com.sikhshan.repository;
 
 import com.sikhshan.model.QuizAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +17,14 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>
     List<QuizAttempt> findByStudentIdOrderByStartedAtDesc(Long studentId);
     
     List<QuizAttempt> findByQuizAndStudent(com.sikhshan.model.Quiz quiz, com.sikhshan.model.User student);
-} 
\ No newline at end of file
+    
+    // Attempt counts per quiz: rows of (quizId, attemptCount)
+    @Query("SELECT a.quiz.id, COUNT(a) FROM QuizAttempt a WHERE a.quiz.id IN :quizIds GROUP BY a.quiz.id")
+    List<Object[]> countAttemptsByQuizIds(@Param("quizIds") Collection<Long> quizIds);
+    
+    // Best attempt points per (student, quiz) in a course: rows of (studentId, quizId, pointsEarned)
+    @Query("SELECT a.student.id, a.quiz.id, MAX(a.pointsEarned) FROM QuizAttempt a " +
+           "WHERE a.quiz.course.id = :courseId AND a.student.id IN :studentIds AND a.pointsEarned IS NOT NULL " +
+           "GROUP BY a.student.id, a.quiz.id")
+    List<Object[]> findBestPointsByCourseAndStudents(@Param("courseId") Long courseId, @Param("studentIds") Collection<Long> studentIds);
+}
@@ -1,10 +1,25 @@
 package com.sikhshan.repository;
 
 import com.sikhshan.model.Quiz;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
+    // List queries fetch course and instructor in the same statement instead of one select per row
+    @Override
+    @EntityGraph(attributePaths = {"course", "instructor"})
+    List<Quiz> findAll();
+    
+    @EntityGraph(attributePaths = {"course", "instructor"})
     List<Quiz> findByCourseId(Long courseId);
+    
+    @EntityGraph(attributePaths = {"course", "instructor"})
     List<Quiz> findByInstructorId(Long instructorId);
-} 
\ No newline at end of file
+    
+    // Quiz count and total points for a course: a single row of (count, totalPoints)
+    @Query("SELECT COUNT(q), COALESCE(SUM(q.totalPoints), 0) FROM Quiz q WHERE q.course.id = :courseId")
+    List<Object[]> getTotalsByCourseId(@Param("courseId") Long courseId);
+}
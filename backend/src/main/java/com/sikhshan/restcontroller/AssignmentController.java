@@ -2,6 +2,8 @@ package com.sikhshan.restcontroller;
 
 import com.sikhshan.dto.AssignmentRequest;
 import com.sikhshan.dto.AssignmentResponse;
+import com.sikhshan.dto.JwtClaims;
+import com.sikhshan.event.CourseItemsChangedEvent;
 import com.sikhshan.model.Assignment;
 import com.sikhshan.model.AssignmentSubmission;
 import com.sikhshan.model.Course;
@@ -10,8 +12,9 @@ import com.sikhshan.repository.AssignmentRepository;
 import com.sikhshan.repository.CourseRepository;
 import com.sikhshan.repository.AssignmentSubmissionRepository;
 import com.sikhshan.service.CloudinaryService;
-import com.sikhshan.service.JwtService;
+import com.sikhshan.service.GradingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -36,11 +39,33 @@ public class AssignmentController {
     private AssignmentSubmissionRepository submissionRepository;
     @Autowired
     private CloudinaryService cloudinaryService;
-    
     @Autowired
-    private JwtService jwtService;
+    private GradingService gradingService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     private AssignmentResponse toResponse(Assignment assignment) {
+        return toResponses(List.of(assignment)).get(0);
+    }
+
+    // Convert a list of assignments, loading all submission counts with a single grouped query
+    private List<AssignmentResponse> toResponses(List<Assignment> assignments) {
+        Map<Long, long[]> submissionCounts = new HashMap<>();
+        List<Long> assignmentIds = assignments.stream().map(Assignment::getId).collect(Collectors.toList());
+        if (!assignmentIds.isEmpty()) {
+            for (Object[] row : submissionRepository.countSubmissionsByAssignmentIds(assignmentIds)) {
+                long submissionCount = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+                long gradedCount = row[2] != null ? ((Number) row[2]).longValue() : 0L;
+                submissionCounts.put((Long) row[0], new long[] { submissionCount, gradedCount });
+            }
+        }
+        
+        return assignments.stream()
+                .map(a -> toResponse(a, submissionCounts.getOrDefault(a.getId(), new long[] { 0L, 0L })))
+                .collect(Collectors.toList());
+    }
+
+    private AssignmentResponse toResponse(Assignment assignment, long[] submissionCounts) {
         AssignmentResponse resp = new AssignmentResponse();
         resp.setId(assignment.getId());
         resp.setName(assignment.getName());
@@ -66,24 +91,19 @@ public class AssignmentController {
         // Check if assignment is overdue
         resp.setOverdue(assignment.getDueDate() != null && assignment.getDueDate().isBefore(LocalDateTime.now()));
         
-        // Get submission counts
-        List<AssignmentSubmission> submissions = submissionRepository.findByAssignmentId(assignment.getId());
-        resp.setSubmissionCount(submissions.size());
-        
-        long gradedCount = submissions.stream()
-            .filter(s -> s.getStatus() != null && s.getStatus().contains("GRADED"))
-            .count();
-        resp.setGradedCount((int) gradedCount);
+        // Submission counts (submitted, graded)
+        resp.setSubmissionCount((int) submissionCounts[0]);
+        resp.setGradedCount((int) submissionCounts[1]);
         
         return resp;
     }
 
     // Create assignment
     @PostMapping
-    public ResponseEntity<?> createAssignment(@RequestBody AssignmentRequest request, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> createAssignment(@RequestBody AssignmentRequest request, JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7)); // Remove "Bearer " prefix
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
             Optional<Course> courseOpt = courseRepository.findById(request.getCourseId());
             if (courseOpt.isEmpty()) {
@@ -105,6 +125,7 @@ public class AssignmentController {
             assignment.setInstructor(courseOpt.get().getInstructor());
             
             Assignment savedAssignment = assignmentRepository.save(assignment);
+            eventPublisher.publishEvent(new CourseItemsChangedEvent(savedAssignment.getCourse().getId()));
             return ResponseEntity.ok(toResponse(savedAssignment));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error creating assignment: " + e.getMessage());
@@ -150,7 +171,7 @@ public class AssignmentController {
     @GetMapping
     public ResponseEntity<List<AssignmentResponse>> getAllAssignments() {
         List<Assignment> assignments = assignmentRepository.findAll();
-        List<AssignmentResponse> responses = assignments.stream().map(this::toResponse).collect(Collectors.toList());
+        List<AssignmentResponse> responses = toResponses(assignments);
         return ResponseEntity.ok(responses);
     }
 
@@ -173,9 +194,7 @@ public class AssignmentController {
             List<Assignment> assignments = assignmentRepository.findByCourseId(courseId);
             System.out.println("Found " + assignments.size() + " assignments for course " + courseId);
             
-            List<AssignmentResponse> responses = assignments.stream()
-                    .map(this::toResponse)
-                    .collect(Collectors.toList());
+            List<AssignmentResponse> responses = toResponses(assignments);
             
             System.out.println("Converted to " + responses.size() + " responses");
             return ResponseEntity.ok(responses);
@@ -190,7 +209,7 @@ public class AssignmentController {
     @GetMapping("/course/{courseId}/active")
     public ResponseEntity<List<AssignmentResponse>> getActiveAssignmentsByCourse(@PathVariable Long courseId) {
         List<Assignment> assignments = assignmentRepository.findByCourseIdAndStatus(courseId, "ACTIVE");
-        List<AssignmentResponse> responses = assignments.stream().map(this::toResponse).collect(Collectors.toList());
+        List<AssignmentResponse> responses = toResponses(assignments);
         return ResponseEntity.ok(responses);
     }
 
@@ -198,7 +217,7 @@ public class AssignmentController {
     @GetMapping("/course/{courseId}/overdue")
     public ResponseEntity<List<AssignmentResponse>> getOverdueAssignmentsByCourse(@PathVariable Long courseId) {
         List<Assignment> assignments = assignmentRepository.findOverdueAssignmentsByCourse(courseId, LocalDateTime.now());
-        List<AssignmentResponse> responses = assignments.stream().map(this::toResponse).collect(Collectors.toList());
+        List<AssignmentResponse> responses = toResponses(assignments);
         return ResponseEntity.ok(responses);
     }
 
@@ -206,16 +225,16 @@ public class AssignmentController {
     @GetMapping("/instructor/{instructorId}")
     public ResponseEntity<List<AssignmentResponse>> getAssignmentsByInstructor(@PathVariable Long instructorId) {
         List<Assignment> assignments = assignmentRepository.findByInstructorId(instructorId);
-        List<AssignmentResponse> responses = assignments.stream().map(this::toResponse).collect(Collectors.toList());
+        List<AssignmentResponse> responses = toResponses(assignments);
         return ResponseEntity.ok(responses);
     }
 
     // Update assignment
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateAssignment(@PathVariable Long id, @RequestBody AssignmentRequest request, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> updateAssignment(@PathVariable Long id, @RequestBody AssignmentRequest request, JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7)); // Remove "Bearer " prefix
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
             Optional<Assignment> assignmentOpt = assignmentRepository.findById(id);
             if (assignmentOpt.isEmpty()) {
@@ -243,44 +262,14 @@ public class AssignmentController {
             assignment.setStatus(request.getStatus() != null ? request.getStatus() : assignment.getStatus());
             assignment.setTotalPoints(newTotalPoints);
             
-            // If total points changed, proportionally adjust existing grades
+            // If total points changed, proportionally adjust existing grades and course grades in bulk
+            Assignment savedAssignment;
             if (oldTotalPoints != null && !oldTotalPoints.equals(newTotalPoints) && oldTotalPoints > 0) {
-                List<AssignmentSubmission> submissions = submissionRepository.findByAssignmentId(id);
-                int adjustedCount = 0;
-                
-                for (AssignmentSubmission submission : submissions) {
-                    if (submission.getPointsEarned() != null && submission.getGrade() != null) {
-                        // Calculate new points earned proportionally
-                        double ratio = (double) newTotalPoints / oldTotalPoints;
-                        int newPointsEarned = (int) Math.round(submission.getPointsEarned() * ratio);
-                        
-                        // Ensure points earned doesn't exceed new total and is not negative
-                        newPointsEarned = Math.max(0, Math.min(newPointsEarned, newTotalPoints));
-                        
-                        // Recalculate grade, letter grade, grade point, and performance
-                        double newPercentage = com.sikhshan.utility.GradeCalculator.calculatePercentage(newPointsEarned, newTotalPoints);
-                        String newLetterGrade = com.sikhshan.utility.GradeCalculator.calculateLetterGrade(newPercentage);
-                        double newGradePoint = com.sikhshan.utility.GradeCalculator.calculateGradePoint(newPercentage);
-                        String newPerformanceDescription = com.sikhshan.utility.GradeCalculator.getPerformanceDescription(newPercentage);
-                        
-                        // Update submission
-                        submission.setPointsEarned(newPointsEarned);
-                        submission.setGrade(newPercentage);
-                        submission.setLetterGrade(newLetterGrade);
-                        submission.setGradePoint(newGradePoint);
-                        submission.setPerformanceDescription(newPerformanceDescription);
-                        submission.setLastModifiedAt(LocalDateTime.now());
-                        
-                        submissionRepository.save(submission);
-                        adjustedCount++;
-                    }
-                }
-                
-                System.out.println("Proportionally adjusted " + adjustedCount + " submissions for assignment " + id + 
-                                 " (old total: " + oldTotalPoints + ", new total: " + newTotalPoints + ")");
+                savedAssignment = gradingService.rescaleAssignment(assignment, oldTotalPoints);
+            } else {
+                savedAssignment = assignmentRepository.save(assignment);
             }
             
-            Assignment savedAssignment = assignmentRepository.save(assignment);
             return ResponseEntity.ok(toResponse(savedAssignment));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error updating assignment: " + e.getMessage());
@@ -289,10 +278,10 @@ public class AssignmentController {
 
     // Delete assignment
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteAssignment(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> deleteAssignment(@PathVariable Long id, JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7)); // Remove "Bearer " prefix
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
             Optional<Assignment> assignmentOpt = assignmentRepository.findById(id);
             if (assignmentOpt.isEmpty()) {
@@ -331,6 +320,7 @@ public class AssignmentController {
             }
             
             assignmentRepository.delete(assignment);
+            eventPublisher.publishEvent(new CourseItemsChangedEvent(assignment.getCourse().getId()));
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error deleting assignment: " + e.getMessage());
@@ -2,6 +2,7 @@ package com.sikhshan.restcontroller;
 
 import com.sikhshan.dto.AssignmentSubmissionRequest;
 import com.sikhshan.dto.AssignmentSubmissionResponse;
+import com.sikhshan.event.GradeChangedEvent;
 import com.sikhshan.model.Assignment;
 import com.sikhshan.model.AssignmentSubmission;
 import com.sikhshan.model.User;
@@ -10,6 +11,7 @@ import com.sikhshan.repository.AssignmentSubmissionRepository;
 import com.sikhshan.repository.UserRepository;
 import com.sikhshan.service.CloudinaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,6 +34,8 @@ public class AssignmentSubmissionController {
     private UserRepository userRepository;
     @Autowired
     private CloudinaryService cloudinaryService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     private AssignmentSubmissionResponse toResponse(AssignmentSubmission submission) {
         AssignmentSubmissionResponse resp = new AssignmentSubmissionResponse();
@@ -209,6 +213,12 @@ public class AssignmentSubmissionController {
             }
             
             AssignmentSubmission savedSubmission = submissionRepository.save(submission);
+            
+            // Refresh the student's stored course grade
+            eventPublisher.publishEvent(new GradeChangedEvent(
+                    submission.getStudent().getId(), assignment.getCourse().getId(),
+                    GradeChangedEvent.ItemType.ASSIGNMENT));
+            
             return ResponseEntity.ok(toResponse(savedSubmission));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error grading submission: " + e.getMessage());
@@ -301,6 +311,13 @@ public class AssignmentSubmissionController {
             }
             
             submissionRepository.delete(submission);
+            
+            // A graded submission no longer counts towards the course grade
+            if (submission.getPointsEarned() != null) {
+                eventPublisher.publishEvent(new GradeChangedEvent(
+                        submission.getStudent().getId(), submission.getAssignment().getCourse().getId(),
+                        GradeChangedEvent.ItemType.ASSIGNMENT));
+            }
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error deleting submission: " + e.getMessage());
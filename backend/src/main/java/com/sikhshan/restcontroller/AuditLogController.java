@@ -1,6 +1,11 @@
 package com.sikhshan.restcontroller;
 
+import com.sikhshan.config.AuditProperties;
+import com.sikhshan.service.AuditLogExportService;
 import com.sikhshan.service.AuditLogService;
+import com.sikhshan.service.AuditRetentionService;
+import com.sikhshan.service.AuditLogWriter;
+import com.sikhshan.dto.AuditLogCursorPage;
 import com.sikhshan.dto.AuditLogResponse;
 import com.sikhshan.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,8 +14,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +34,18 @@ public class AuditLogController {
     @Autowired
     private AuditLogService auditLogService;
     
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+    
+    @Autowired
+    private AuditLogExportService auditLogExportService;
+    
+    @Autowired
+    private AuditRetentionService auditRetentionService;
+    
+    @Autowired
+    private AuditProperties auditProperties;
+    
     /**
      * Get all audit logs with pagination
      */
@@ -43,10 +65,13 @@ public class AuditLogController {
     }
     
     /**
-     * Get audit logs with filters
+     * Get audit logs with filters.
+     * With a cursor parameter (empty for the first page) this uses keyset pagination and returns
+     * nextCursor for the following page; the total count is skipped unless includeTotal=true.
+     * Without it, offset pagination via page/size is used as before.
      */
     @GetMapping("/filter")
-    public ResponseEntity<Page<AuditLogResponse>> getLogsWithFilters(
+    public ResponseEntity<?> getLogsWithFilters(
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) String status,
@@ -55,7 +80,21 @@ public class AuditLogController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false) String searchTerm,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        if (cursor != null) {
+            try {
+                AuditLogCursorPage logs = auditLogService.getLogsWithFiltersAfter(
+                    username, action, status, resourceType, startDate, endDate, searchTerm,
+                    cursor, Math.max(1, Math.min(size, 1000)), includeTotal
+                );
+                return ResponseEntity.ok(logs);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("timestamp").descending());
         Page<AuditLogResponse> logs = auditLogService.getLogsWithFilters(
@@ -130,7 +169,8 @@ public class AuditLogController {
     }
     
     /**
-     * Get slow queries
+     * Get slow requests from the stored audit history; recent slow requests are answered
+     * from memory by /api/admin/metrics/latency/slow
      */
     @GetMapping("/slow-queries")
     public ResponseEntity<List<AuditLogResponse>> getSlowQueries(
@@ -149,7 +189,7 @@ public class AuditLogController {
     }
     
     /**
-     * Get logs by session ID
+     * Get logs by session ID (the request correlation id for intercepted API requests)
      */
     @GetMapping("/session/{sessionId}")
     public ResponseEntity<List<AuditLogResponse>> getLogsBySessionId(@PathVariable String sessionId) {
@@ -177,6 +217,18 @@ public class AuditLogController {
         return ResponseEntity.ok(logs);
     }
     
+    /**
+     * Ranked full-text search over details, username and request URL
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<AuditLogResponse>> searchLogs(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<AuditLogResponse> logs = auditLogService.searchLogs(q, Math.max(0, page), Math.max(1, Math.min(size, 100)));
+        return ResponseEntity.ok(logs);
+    }
+
     /**
      * Get log statistics
      */
@@ -187,28 +239,74 @@ public class AuditLogController {
     }
     
     /**
-     * Delete old logs
+     * Get audit writer queue statistics (queue depth, dropped and written events)
+     */
+    @GetMapping("/writer-stats")
+    public ResponseEntity<Map<String, Object>> getWriterStats() {
+        return ResponseEntity.ok(auditLogWriter.getStats());
+    }
+    
+    /**
+     * Delete old logs in bounded chunks and report rows purged per second
      */
     @DeleteMapping("/cleanup")
-    public ResponseEntity<String> deleteOldLogs(@RequestParam(defaultValue = "90") int days) {
-        auditLogService.deleteOldLogs(days);
-        return ResponseEntity.ok("Old logs deleted successfully");
+    public ResponseEntity<Map<String, Object>> deleteOldLogs(@RequestParam(defaultValue = "90") int days) {
+        Map<String, Object> report = auditLogService.deleteOldLogs(days);
+        return ResponseEntity.ok(report);
     }
     
     /**
-     * Export logs to CSV
+     * Report of the most recent retention purge (scheduled or manual)
+     */
+    @GetMapping("/cleanup/last-run")
+    public ResponseEntity<Map<String, Object>> getLastCleanup() {
+        Map<String, Object> report = auditRetentionService.getLastRun();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * Export logs matching the filters as CSV or NDJSON, streamed straight from the database.
+     * Pass gzip=true to compress the response (Content-Encoding: gzip). Unknown formats are rejected with 400.
      */
     @GetMapping("/export")
-    public ResponseEntity<String> exportLogs(
+    public ResponseEntity<StreamingResponseBody> exportLogs(
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String resourceType,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            NativeWebRequest webRequest) {
+        
+        AuditLogExportService.Format exportFormat;
+        if ("csv".equalsIgnoreCase(format)) {
+            exportFormat = AuditLogExportService.Format.CSV;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            exportFormat = AuditLogExportService.Format.NDJSON;
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
         
-        // This would typically generate and return a CSV file
-        // For now, we'll return a success message
-        return ResponseEntity.ok("Export functionality will be implemented");
+        // Only the export gets the long async timeout; it applies when streaming starts
+        if (webRequest instanceof AsyncWebRequest) {
+            ((AsyncWebRequest) webRequest).setTimeout(auditProperties.getExport().getTimeoutMs());
+        }
+        String fileName = "audit-logs." + exportFormat.name().toLowerCase();
+        
+        StreamingResponseBody body = out -> auditLogExportService.export(out, exportFormat, gzip,
+            username, action, status, resourceType, startDate, endDate, searchTerm);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(exportFormat == AuditLogExportService.Format.NDJSON
+                ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
     
     /**
@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -124,6 +125,16 @@ public class ChatController {
         }
     }
     
+    // Unread counts for every room of the user in one call, for the chat sidebar
+    @GetMapping("/unread-counts")
+    public ResponseEntity<Map<Long, Long>> getUnreadMessageCounts(@RequestParam Long userId) {
+        try {
+            return ResponseEntity.ok(chatService.getUnreadMessageCounts(userId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // User Status Endpoints
     
     @PostMapping("/users/{userId}/online")
@@ -10,8 +10,8 @@ import org.springframework.web.bind.annotation.*;
 
 import com.sikhshan.dto.EventRequest;
 import com.sikhshan.dto.EventResponse;
+import com.sikhshan.dto.JwtClaims;
 import com.sikhshan.service.EventService;
-import com.sikhshan.service.JwtService;
 
 @RestController
 @RequestMapping("/api/events")
@@ -21,16 +21,13 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
-    @Autowired
-    private JwtService jwtService;
-
     // Create a new event
     @PostMapping
-    public ResponseEntity<?> createEvent(@RequestBody EventRequest request, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> createEvent(@RequestBody EventRequest request, JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            String email = jwtService.extractEmail(token.substring(7)); // Remove "Bearer " prefix
-            Long userId = jwtService.extractUserId(token.substring(7));
+            // User ID from the verified JWT claims
+            String email = claims.getEmail();
+            Long userId = claims.getUserId();
             
             EventResponse event = eventService.createEvent(request, userId);
             return ResponseEntity.ok(event);
@@ -63,9 +60,9 @@ public class EventController {
 
     // Get events by creator (current user)
     @GetMapping("/my-events")
-    public ResponseEntity<?> getMyEvents(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getMyEvents(JwtClaims claims) {
         try {
-            Long userId = jwtService.extractUserId(token.substring(7));
+            Long userId = claims.getUserId();
             List<EventResponse> events = eventService.getEventsByCreator(userId);
             return ResponseEntity.ok(events);
         } catch (Exception e) {
@@ -76,9 +73,9 @@ public class EventController {
     // Get events by creator for a specific month and year
     @GetMapping("/my-events/{year}/{month}")
     public ResponseEntity<?> getMyEventsByMonthYear(@PathVariable int year, @PathVariable int month, 
-                                                   @RequestHeader("Authorization") String token) {
+                                                   JwtClaims claims) {
         try {
-            Long userId = jwtService.extractUserId(token.substring(7));
+            Long userId = claims.getUserId();
             List<EventResponse> events = eventService.getEventsByCreatorAndMonthYear(userId, year, month);
             return ResponseEntity.ok(events);
         } catch (Exception e) {
@@ -100,9 +97,9 @@ public class EventController {
     // Update event
     @PutMapping("/{eventId}")
     public ResponseEntity<?> updateEvent(@PathVariable Long eventId, @RequestBody EventRequest request,
-                                        @RequestHeader("Authorization") String token) {
+                                        JwtClaims claims) {
         try {
-            Long userId = jwtService.extractUserId(token.substring(7));
+            Long userId = claims.getUserId();
             EventResponse event = eventService.updateEvent(eventId, request, userId);
             return ResponseEntity.ok(event);
         } catch (Exception e) {
@@ -112,9 +109,9 @@ public class EventController {
 
     // Delete event
     @DeleteMapping("/{eventId}")
-    public ResponseEntity<?> deleteEvent(@PathVariable Long eventId, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> deleteEvent(@PathVariable Long eventId, JwtClaims claims) {
         try {
-            Long userId = jwtService.extractUserId(token.substring(7));
+            Long userId = claims.getUserId();
             eventService.deleteEvent(eventId, userId);
             return ResponseEntity.ok().body("Event deleted successfully");
         } catch (Exception e) {
@@ -1,14 +1,18 @@
 package com.sikhshan.restcontroller;
 
 import com.sikhshan.dto.CourseGradeResponse;
+import com.sikhshan.dto.JwtClaims;
+import com.sikhshan.dto.RegradeJobResponse;
 import com.sikhshan.model.CourseGrade;
 import com.sikhshan.service.GradingService;
-import com.sikhshan.service.JwtService;
+import com.sikhshan.service.RegradeJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,26 +24,30 @@ public class GradingController {
     private GradingService gradingService;
 
     @Autowired
-    private JwtService jwtService;
+    private RegradeJobService regradeJobService;
 
     /**
-     * Calculate and get course grade for a student
+     * Get the stored course grade for a student. Grades are kept current by grading
+     * events, so this is a lookup; the grade is only calculated the first time.
      */
     @GetMapping("/course/{courseId}/student/{studentId}")
     public ResponseEntity<?> getCourseGrade(@PathVariable Long courseId, @PathVariable Long studentId, 
-                                           @RequestHeader("Authorization") String token) {
+                                           JwtClaims claims) {
         try {
             System.out.println("Received request for courseId: " + courseId + ", studentId: " + studentId);
             
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7));
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             System.out.println("Extracted userId from token: " + userId);
             
-            // Calculate or get existing grade
-            CourseGrade courseGrade = gradingService.calculateCourseGrade(studentId, courseId);
+            // Get existing grade, calculating it only if none is stored yet
+            CourseGrade courseGrade = gradingService.getCourseGrade(studentId, courseId);
+            if (courseGrade == null) {
+                courseGrade = gradingService.calculateCourseGrade(studentId, courseId);
+            }
             CourseGradeResponse response = toCourseGradeResponse(courseGrade);
             
-            System.out.println("Successfully calculated grade for student: " + studentId);
+            System.out.println("Successfully loaded grade for student: " + studentId);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             System.err.println("Error in getCourseGrade: " + e.getMessage());
@@ -53,10 +61,10 @@ public class GradingController {
      */
     @GetMapping("/student/{studentId}")
     public ResponseEntity<?> getStudentGrades(@PathVariable Long studentId, 
-                                             @RequestHeader("Authorization") String token) {
+                                             JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7));
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
             List<CourseGrade> grades = gradingService.getStudentGrades(studentId);
             List<CourseGradeResponse> responses = grades.stream()
@@ -74,10 +82,10 @@ public class GradingController {
      */
     @GetMapping("/course/{courseId}")
     public ResponseEntity<?> getCourseGrades(@PathVariable Long courseId, 
-                                            @RequestHeader("Authorization") String token) {
+                                            JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7));
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
             List<CourseGrade> grades = gradingService.getCourseGrades(courseId);
             List<CourseGradeResponse> responses = grades.stream()
@@ -98,10 +106,10 @@ public class GradingController {
                                                  @RequestParam Long studentId,
                                                  @RequestParam Double assignmentWeight,
                                                  @RequestParam Double quizWeight,
-                                                 @RequestHeader("Authorization") String token) {
+                                                 JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7));
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
             CourseGrade courseGrade = gradingService.updateGradingWeights(studentId, courseId, assignmentWeight, quizWeight);
             CourseGradeResponse response = toCourseGradeResponse(courseGrade);
@@ -117,10 +125,10 @@ public class GradingController {
      */
     @GetMapping("/student/{studentId}/gpa")
     public ResponseEntity<?> getStudentGPA(@PathVariable Long studentId, 
-                                          @RequestHeader("Authorization") String token) {
+                                          JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7));
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
             double gpa = gradingService.calculateOverallGPA(studentId);
             
@@ -143,23 +151,38 @@ public class GradingController {
     }
 
     /**
-     * Recalculate all grades for a course (when assignments/quizzes are updated)
+     * Start a background recalculation of all grades for a course (when assignments/quizzes are updated).
+     * Returns the job straight away; poll /jobs/{jobId} for progress.
      */
     @PostMapping("/course/{courseId}/recalculate")
     public ResponseEntity<?> recalculateCourseGrades(@PathVariable Long courseId, 
-                                                    @RequestHeader("Authorization") String token) {
+                                                    JwtClaims claims) {
         try {
-            // Extract user ID from JWT token
-            Long userId = jwtService.extractUserId(token.substring(7));
+            // User ID from the verified JWT claims
+            Long userId = claims.getUserId();
             
-            gradingService.recalculateCourseGrades(courseId);
+            RegradeJobResponse job = regradeJobService.submit(courseId);
             
-            return ResponseEntity.ok("Grades recalculated successfully");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /**
+     * Progress of a course recalculation job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getRegradeJob(@PathVariable String jobId) {
+        RegradeJobResponse job = regradeJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(404).body("Regrade job not found with id: " + jobId);
+        }
+        return ResponseEntity.ok(job);
+    }
+
     /**
      * Convert CourseGrade to CourseGradeResponse
      */
@@ -2,6 +2,7 @@ package com.sikhshan.restcontroller;
 
 import com.sikhshan.dto.QuizAttemptRequest;
 import com.sikhshan.dto.QuizAttemptResponse;
+import com.sikhshan.event.GradeChangedEvent;
 import com.sikhshan.model.Quiz;
 import com.sikhshan.model.QuizAttempt;
 import com.sikhshan.model.Question;
@@ -12,6 +13,7 @@ import com.sikhshan.repository.QuestionRepository;
 import com.sikhshan.repository.UserRepository;
 import com.sikhshan.utility.QuizScoringUtility;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,6 +34,8 @@ public class QuizAttemptController {
     private QuestionRepository questionRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     private QuizAttemptResponse toResponse(QuizAttempt attempt) {
         QuizAttemptResponse resp = new QuizAttemptResponse();
@@ -157,6 +161,12 @@ public class QuizAttemptController {
             attempt.setAnswers(QuizScoringUtility.serializeStudentAnswers(studentAnswers));
             
             QuizAttempt savedAttempt = attemptRepository.save(attempt);
+            
+            // Refresh the student's stored course grade
+            eventPublisher.publishEvent(new GradeChangedEvent(
+                    attempt.getStudent().getId(), quiz.getCourse().getId(),
+                    GradeChangedEvent.ItemType.QUIZ));
+            
             return ResponseEntity.ok(toResponse(savedAttempt));
             
         } catch (Exception e) {
@@ -272,6 +282,11 @@ public class QuizAttemptController {
             if (request.getSubmittedAt() != null) attempt.setSubmittedAt(request.getSubmittedAt());
             
             QuizAttempt savedAttempt = attemptRepository.save(attempt);
+            
+            // A rescore may raise or lower the student's best attempt
+            eventPublisher.publishEvent(new GradeChangedEvent(
+                    attempt.getStudent().getId(), attempt.getQuiz().getCourse().getId(),
+                    GradeChangedEvent.ItemType.QUIZ));
             return ResponseEntity.ok(toResponse(savedAttempt));
             
         } catch (Exception e) {
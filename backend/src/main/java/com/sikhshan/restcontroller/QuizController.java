@@ -6,6 +6,7 @@ import com.sikhshan.dto.QuestionRequest;
 import com.sikhshan.dto.QuestionResponse;
 import com.sikhshan.dto.QuestionOptionRequest;
 import com.sikhshan.dto.QuestionOptionResponse;
+import com.sikhshan.event.CourseItemsChangedEvent;
 import com.sikhshan.model.Quiz;
 import com.sikhshan.model.Question;
 import com.sikhshan.model.QuestionOption;
@@ -18,11 +19,15 @@ import com.sikhshan.repository.CourseRepository;
 import com.sikhshan.repository.UserRepository;
 import com.sikhshan.repository.QuizAttemptRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -41,8 +46,29 @@ public class QuizController {
     private UserRepository userRepository;
     @Autowired
     private QuizAttemptRepository attemptRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     private QuizResponse toResponse(Quiz quiz) {
+        return toResponses(List.of(quiz)).get(0);
+    }
+
+    // Convert a list of quizzes, loading all attempt counts with a single grouped query
+    private List<QuizResponse> toResponses(List<Quiz> quizzes) {
+        Map<Long, Long> attemptCounts = new HashMap<>();
+        List<Long> quizIds = quizzes.stream().map(Quiz::getId).collect(Collectors.toList());
+        if (!quizIds.isEmpty()) {
+            for (Object[] row : attemptRepository.countAttemptsByQuizIds(quizIds)) {
+                attemptCounts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        
+        return quizzes.stream()
+                .map(q -> toResponse(q, attemptCounts.getOrDefault(q.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private QuizResponse toResponse(Quiz quiz, long attemptCount) {
         QuizResponse resp = new QuizResponse();
         resp.setId(quiz.getId());
         resp.setName(quiz.getName());
@@ -69,9 +95,7 @@ public class QuizController {
         resp.setActive(now.isAfter(quiz.getStartDateTime()) && now.isBefore(endTime));
         resp.setOverdue(now.isAfter(endTime));
         
-        // Get attempt count
-        List<com.sikhshan.model.QuizAttempt> attempts = attemptRepository.findByQuizId(quiz.getId());
-        resp.setAttemptCount(attempts.size());
+        resp.setAttemptCount((int) attemptCount);
         
         return resp;
     }
@@ -155,6 +179,7 @@ public class QuizController {
                 }
             }
             
+            eventPublisher.publishEvent(new CourseItemsChangedEvent(savedQuiz.getCourse().getId()));
             return ResponseEntity.ok(toResponse(savedQuiz));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error creating quiz: " + e.getMessage());
@@ -223,7 +248,7 @@ public class QuizController {
     @GetMapping
     public ResponseEntity<List<QuizResponse>> getAllQuizzes() {
         List<Quiz> quizzes = quizRepository.findAll();
-        List<QuizResponse> responses = quizzes.stream().map(this::toResponse).collect(Collectors.toList());
+        List<QuizResponse> responses = toResponses(quizzes);
         return ResponseEntity.ok(responses);
     }
 
@@ -231,7 +256,7 @@ public class QuizController {
     @GetMapping("/course/{courseId}")
     public ResponseEntity<List<QuizResponse>> getQuizzesByCourse(@PathVariable Long courseId) {
         List<Quiz> quizzes = quizRepository.findByCourseId(courseId);
-        List<QuizResponse> responses = quizzes.stream().map(this::toResponse).collect(Collectors.toList());
+        List<QuizResponse> responses = toResponses(quizzes);
         return ResponseEntity.ok(responses);
     }
 
@@ -241,13 +266,13 @@ public class QuizController {
         List<Quiz> quizzes = quizRepository.findByCourseId(courseId);
         LocalDateTime now = LocalDateTime.now();
         
-        List<QuizResponse> responses = quizzes.stream()
+        List<Quiz> activeQuizzes = quizzes.stream()
             .filter(quiz -> {
                 LocalDateTime endTime = quiz.getStartDateTime().plusMinutes(quiz.getDurationMinutes());
                 return now.isAfter(quiz.getStartDateTime()) && now.isBefore(endTime);
             })
-            .map(this::toResponse)
             .collect(Collectors.toList());
+        List<QuizResponse> responses = toResponses(activeQuizzes);
         
         return ResponseEntity.ok(responses);
     }
@@ -256,7 +281,7 @@ public class QuizController {
     @GetMapping("/instructor/{instructorId}")
     public ResponseEntity<List<QuizResponse>> getQuizzesByInstructor(@PathVariable Long instructorId) {
         List<Quiz> quizzes = quizRepository.findByInstructorId(instructorId);
-        List<QuizResponse> responses = quizzes.stream().map(this::toResponse).collect(Collectors.toList());
+        List<QuizResponse> responses = toResponses(quizzes);
         return ResponseEntity.ok(responses);
     }
 
@@ -277,6 +302,8 @@ public class QuizController {
             }
             
             Quiz quiz = quizOpt.get();
+            Long previousCourseId = quiz.getCourse().getId();
+            Integer previousTotalPoints = quiz.getTotalPoints();
             quiz.setName(request.getName());
             quiz.setDescription(request.getDescription());
             quiz.setStartDateTime(request.getStartDateTime());
@@ -287,6 +314,14 @@ public class QuizController {
             quiz.setInstructor(instructorOpt.get());
             
             Quiz savedQuiz = quizRepository.save(quiz);
+            // Stored grades only depend on the course's quiz count and total points
+            boolean courseChanged = !previousCourseId.equals(savedQuiz.getCourse().getId());
+            if (courseChanged || !Objects.equals(previousTotalPoints, savedQuiz.getTotalPoints())) {
+                eventPublisher.publishEvent(new CourseItemsChangedEvent(savedQuiz.getCourse().getId()));
+            }
+            if (courseChanged) {
+                eventPublisher.publishEvent(new CourseItemsChangedEvent(previousCourseId));
+            }
             return ResponseEntity.ok(toResponse(savedQuiz));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error updating quiz: " + e.getMessage());
@@ -296,11 +331,14 @@ public class QuizController {
     // Delete quiz
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteQuiz(@PathVariable Long id) {
-        if (!quizRepository.existsById(id)) {
+        Optional<Quiz> quizOpt = quizRepository.findById(id);
+        if (quizOpt.isEmpty()) {
             return ResponseEntity.status(404).body("Quiz not found with id: " + id);
         }
         
         try {
+            Long courseId = quizOpt.get().getCourse().getId();
+            
             // Delete questions and options first
             List<Question> questions = questionRepository.findByQuizId(id);
             for (Question question : questions) {
@@ -313,6 +351,7 @@ public class QuizController {
             
             // Delete quiz
             quizRepository.deleteById(id);
+            eventPublisher.publishEvent(new CourseItemsChangedEvent(courseId));
             return ResponseEntity.ok("Quiz deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error deleting quiz: " + e.getMessage());
@@ -3,6 +3,7 @@ package com.sikhshan.restcontroller;
 import com.sikhshan.dto.MessageRequest;
 import com.sikhshan.dto.MessageResponse;
 import com.sikhshan.dto.WebSocketMessage;
+import com.sikhshan.service.ChatDeliveryService;
 import com.sikhshan.service.ChatService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -18,6 +19,9 @@ public class WebSocketController {
     @Autowired
     private ChatService chatService;
     
+    @Autowired
+    private ChatDeliveryService chatDeliveryService;
+    
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     
@@ -32,14 +36,8 @@ public class WebSocketController {
             
             Long senderId = Long.parseLong(senderIdStr);
             
-            // Send message through chat service
-            MessageResponse messageResponse = chatService.sendMessage(messageRequest, senderId);
-            
-            // Create WebSocket message
-            WebSocketMessage wsMessage = WebSocketMessage.newMessage(messageResponse);
-            
-            // Send to specific chat room topic
-            messagingTemplate.convertAndSend("/topic/chat/" + messageRequest.getChatRoomId(), wsMessage);
+            // Broadcast to the chat room topic now; the message is stored in the background
+            chatDeliveryService.send(messageRequest, senderId);
             
         } catch (Exception e) {
             // Send error message to the specific user
@@ -0,0 +1,55 @@
+package com.sikhshan.restcontroller.admin;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.sikhshan.service.JwtService;
+import com.sikhshan.service.RouteLatencyRecorder;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+public class SystemMetricsController {
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private RouteLatencyRecorder routeLatencyRecorder;
+
+	// Verified-token cache hit rate, size and eviction counters
+	@GetMapping("/token-cache")
+	public ResponseEntity<Map<String, Object>> getTokenCacheStats() {
+		return ResponseEntity.ok(jwtService.getTokenCache().getStats());
+	}
+
+	// p50/p95/p99/max and the slowest recent requests per route, answered from memory
+	@GetMapping("/latency")
+	public ResponseEntity<?> getRouteLatency(
+			@RequestParam(required = false) String route,
+			@RequestParam(defaultValue = "5") int top) {
+		int limit = Math.max(0, Math.min(top, 100));
+		if (route != null) {
+			Map<String, Object> summary = routeLatencyRecorder.getRouteSummary(route, limit);
+			return summary != null ? ResponseEntity.ok(summary) : ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(routeLatencyRecorder.getRouteSummaries(limit));
+	}
+
+	// Recent requests slower than the threshold across all routes
+	@GetMapping("/latency/slow")
+	public ResponseEntity<List<Map<String, Object>>> getSlowRequests(
+			@RequestParam(defaultValue = "5000") long thresholdMs,
+			@RequestParam(defaultValue = "50") int limit) {
+		return ResponseEntity.ok(routeLatencyRecorder.getSlowRequests(thresholdMs, Math.max(1, Math.min(limit, 1000))));
+	}
+
+	@DeleteMapping("/latency")
+	public ResponseEntity<Void> resetRouteLatency() {
+		routeLatencyRecorder.reset();
+		return ResponseEntity.noContent().build();
+	}
+}
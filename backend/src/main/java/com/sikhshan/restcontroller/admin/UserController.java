@@ -10,7 +10,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.sikhshan.model.User;
+import com.sikhshan.repository.ChatRoomRepository;
 import com.sikhshan.repository.UserRepository;
+import com.sikhshan.service.ChatMembershipCache;
+import com.sikhshan.service.UnreadCounterService;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -19,6 +22,15 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
     @PostMapping("/create")
     public ResponseEntity<?> createUser(@RequestBody User user) {
         System.out.println("Received user data: " + user);
@@ -84,7 +96,11 @@ public class UserController {
 	public ResponseEntity<?> deleteUser(@PathVariable Long id) {
 		Optional<User> userOpt = userRepository.findById(id);
 		if (userOpt.isPresent()) {
+			List<Long> chatRoomIds = chatRoomRepository.findIdsByUserId(id);
 			userRepository.deleteById(id);
+			// The user's chat rooms are deleted with them
+			chatMembershipCache.invalidateUser(id);
+			unreadCounterService.invalidateUser(id, chatRoomIds);
 			return ResponseEntity.ok("User deleted successfully");
 		} else {
 			return ResponseEntity.status(404).body("User not found with id: " + id);
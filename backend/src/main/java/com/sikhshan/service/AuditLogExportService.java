@@ -0,0 +1,249 @@
+package com.sikhshan.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams audit logs as CSV or NDJSON.
+ *
+ * Rows are read through a forward-only, read-only cursor in MySQL's streaming mode and
+ * written to the response one at a time, so memory use does not grow with the export size.
+ */
+@Service
+public class AuditLogExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogExportService.class);
+
+    private static final String[] COLUMNS = {
+            "id", "timestamp", "user_id", "username", "action", "details", "status", "ip_address", "user_agent",
+            "resource_type", "resource_id", "old_values", "new_values", "session_id", "request_method",
+            "request_url", "response_status", "execution_time", "error_message"
+    };
+
+    private static final String SELECT_SQL = "SELECT " + String.join(", ", COLUMNS) + " FROM audit_logs";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    @Autowired
+    public AuditLogExportService(DataSource dataSource) {
+        // Connector/J only streams rows (instead of buffering the whole result) for a
+        // forward-only, read-only statement with a fetch size of Integer.MIN_VALUE
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Write every audit log matching the same filters as the /filter endpoint, newest first
+     */
+    public long export(OutputStream out, Format format, boolean gzip,
+                       String username, String action, String status, String resourceType,
+                       LocalDateTime startDate, LocalDateTime endDate, String searchTerm) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (username != null) {
+            sql.append(" AND LOWER(username) LIKE ?");
+            args.add("%" + username.toLowerCase() + "%");
+        }
+        if (action != null) {
+            sql.append(" AND action = ?");
+            args.add(action);
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status);
+        }
+        if (resourceType != null) {
+            sql.append(" AND resource_type = ?");
+            args.add(resourceType);
+        }
+        if (startDate != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND timestamp <= ?");
+            args.add(Timestamp.valueOf(endDate));
+        }
+        if (searchTerm != null) {
+            sql.append(" AND LOWER(details) LIKE ?");
+            args.add("%" + searchTerm.toLowerCase() + "%");
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC");
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        RowSink sink = format == Format.NDJSON ? new NdjsonSink(writer) : new CsvSink(writer);
+        long[] rows = new long[1];
+
+        long start = System.currentTimeMillis();
+        try {
+            sink.start();
+            streamingJdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                try {
+                    sink.write(rs);
+                    rows[0]++;
+                } catch (IOException e) {
+                    // Client went away; abandon the cursor
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray());
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            logger.warn("Audit log export aborted after {} rows: {}", rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) target).finish();
+        }
+        logger.info("Exported {} audit logs as {} in {} ms", rows[0], format, System.currentTimeMillis() - start);
+        return rows[0];
+    }
+
+    private interface RowSink {
+        void start() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvSink implements RowSink {
+        private final Writer writer;
+
+        CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value != null) {
+                    writeField(value instanceof Timestamp
+                            ? ((Timestamp) value).toLocalDateTime().toString()
+                            : value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        // RFC 4180 quoting
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static class NdjsonSink implements RowSink {
+        private final Writer writer;
+        private JsonGenerator generator;
+        private String[] fieldNames;
+
+        NdjsonSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            fieldNames = new String[COLUMNS.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                fieldNames[i] = toCamelCase(COLUMNS[i]);
+            }
+            generator = JSON_FACTORY.createGenerator(writer);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < fieldNames.length; i++) {
+                Object value = rs.getObject(i + 1);
+                generator.writeFieldName(fieldNames[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Timestamp) {
+                    generator.writeString(((Timestamp) value).toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+
+        private static String toCamelCase(String column) {
+            StringBuilder name = new StringBuilder(column.length());
+            boolean upper = false;
+            for (char c : column.toCharArray()) {
+                if (c == '_') {
+                    upper = true;
+                } else {
+                    name.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return name.toString();
+        }
+    }
+}
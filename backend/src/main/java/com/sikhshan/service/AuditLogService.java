@@ -3,29 +3,48 @@ package com.sikhshan.service;
 import com.sikhshan.model.AuditLog;
 import com.sikhshan.model.User;
 import com.sikhshan.repository.AuditLogRepository;
+import com.sikhshan.dto.AuditLogCursorPage;
 import com.sikhshan.dto.AuditLogResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class AuditLogService {
     
+    // Sorts after every stored timestamp, so the first keyset page starts at the newest row
+    private static final LocalDateTime FIRST_PAGE_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
     @Autowired
     private AuditLogRepository auditLogRepository;
     
+    @Autowired
+    private AuditRetentionService auditRetentionService;
+    
+    @Autowired
+    private AuditRollupService auditRollupService;
+
+    @Autowired
+    private AuditSearchService auditSearchService;
+    
     /**
      * Create a new audit log entry
      */
     public AuditLog createLog(User user, String action, String details, String status) {
         AuditLog auditLog = new AuditLog(user, action, details, status);
-        return auditLogRepository.save(auditLog);
+        return save(auditLog);
     }
     
     /**
@@ -38,7 +57,7 @@ public class AuditLogService {
         auditLog.setUserAgent(userAgent);
         auditLog.setResourceType(resourceType);
         auditLog.setResourceId(resourceId);
-        return auditLogRepository.save(auditLog);
+        return save(auditLog);
     }
     
     /**
@@ -61,7 +80,14 @@ public class AuditLogService {
         auditLog.setResponseStatus(responseStatus);
         auditLog.setExecutionTime(executionTime);
         auditLog.setErrorMessage(errorMessage);
-        return auditLogRepository.save(auditLog);
+        return save(auditLog);
+    }
+    
+    private AuditLog save(AuditLog auditLog) {
+        AuditLog saved = auditLogRepository.save(auditLog);
+        auditRollupService.record(saved);
+        auditSearchService.catchUp();
+        return saved;
     }
     
     /**
@@ -96,6 +122,54 @@ public class AuditLogService {
         }
     }
     
+    /**
+     * Get audit logs with filters using keyset pagination on (timestamp, id).
+     * Each page costs the same regardless of depth; the total is only counted when requested.
+     */
+    public AuditLogCursorPage getLogsWithFiltersAfter(String username, String action, String status,
+                                                      String resourceType, LocalDateTime startDate,
+                                                      LocalDateTime endDate, String searchTerm,
+                                                      String cursor, int size, boolean includeTotal) {
+        LocalDateTime cursorTimestamp = FIRST_PAGE_TIMESTAMP;
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                cursorTimestamp = LocalDateTime.parse(key[0]);
+                cursorId = Long.parseLong(key[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Fetch one extra row to know whether another page follows
+        List<AuditLog> logs = auditLogRepository.findWithFiltersAfter(
+            username, action, status, resourceType, startDate, endDate, searchTerm,
+            cursorTimestamp, cursorId, PageRequest.of(0, size + 1)
+        );
+        boolean hasNext = logs.size() > size;
+        String nextCursor = null;
+        if (hasNext) {
+            logs = logs.subList(0, size);
+            AuditLog last = logs.get(size - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getId());
+        }
+
+        Long total = includeTotal
+            ? auditLogRepository.countWithFilters(username, action, status, resourceType, startDate, endDate, searchTerm)
+            : null;
+
+        List<AuditLogResponse> content = logs.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return new AuditLogCursorPage(content, size, hasNext, nextCursor, total);
+    }
+    
+    private String encodeCursor(LocalDateTime timestamp, Long id) {
+        String key = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
     /**
      * Get logs by user
      */
@@ -193,64 +267,36 @@ public class AuditLogService {
         return logs.stream().map(this::convertToResponse).collect(Collectors.toList());
     }
     
+    /**
+     * Full-text search over details, username and request URL, best matches first
+     */
+    public Page<AuditLogResponse> searchLogs(String query, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        List<Long> ids = auditSearchService.searchIds(query, (int) pageable.getOffset(), size);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, auditSearchService.count(query));
+        }
+
+        // findAllById does not keep the ranking, so reorder by the search result
+        Map<Long, AuditLog> logsById = auditLogRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(AuditLog::getId, Function.identity()));
+        List<AuditLogResponse> content = ids.stream()
+            .map(logsById::get)
+            .filter(Objects::nonNull)
+            .map(this::convertToResponse)
+            .collect(Collectors.toList());
+
+        long total = ids.size() < size && page == 0 ? ids.size() : auditSearchService.count(query);
+        return new PageImpl<>(content, pageable, total);
+    }
+    
     /**
      * Get log statistics
      */
     public Map<String, Object> getLogStatistics() {
         try {
-            Map<String, Object> stats = new java.util.HashMap<>();
-            
-            // Count by action
-            List<Object[]> actionCounts = auditLogRepository.getLogCountByAction();
-            Map<String, Long> actionStats = actionCounts.stream()
-                .collect(Collectors.toMap(
-                    row -> (String) row[0],
-                    row -> (Long) row[1]
-                ));
-            stats.put("actionCounts", actionStats);
-            
-            // Count by status
-            List<Object[]> statusCounts = auditLogRepository.getLogCountByStatus();
-            Map<String, Long> statusStats = statusCounts.stream()
-                .collect(Collectors.toMap(
-                    row -> (String) row[0],
-                    row -> (Long) row[1]
-                ));
-            stats.put("statusCounts", statusStats);
-            
-            // Count by user
-            List<Object[]> userCounts = auditLogRepository.getLogCountByUser();
-            Map<String, Long> userStats = userCounts.stream()
-                .collect(Collectors.toMap(
-                    row -> (String) row[0],
-                    row -> (Long) row[1]
-                ));
-            stats.put("userCounts", userStats);
-            
-            // Count by date (last 7 days)
-            List<Object[]> dateCounts = auditLogRepository.getLogCountByDate();
-            Map<String, Long> dateStats = dateCounts.stream()
-                .limit(7)
-                .collect(Collectors.toMap(
-                    row -> row[0].toString(),
-                    row -> (Long) row[1]
-                ));
-            stats.put("dateCounts", dateStats);
-            
-            // Total logs
-            long totalLogs = auditLogRepository.count();
-            stats.put("totalLogs", totalLogs);
-            
-            // Recent logs count (last 24 hours)
-            LocalDateTime startDate = LocalDateTime.now().minusHours(24);
-            List<AuditLog> recentLogs = auditLogRepository.findRecentLogs(startDate);
-            stats.put("recentLogsCount", recentLogs.size());
-            
-            // Error logs count
-            List<AuditLog> errorLogs = auditLogRepository.findByStatusOrderByTimestampDesc("ERROR");
-            stats.put("errorLogsCount", errorLogs.size());
-            
-            return stats;
+            // Answered from the per-minute and per-day rollups, not the raw log
+            return auditRollupService.getStatistics();
         } catch (Exception e) {
             System.err.println("Error fetching log statistics: " + e.getMessage());
             e.printStackTrace();
@@ -276,12 +322,8 @@ public class AuditLogService {
     /**
      * Delete old logs (older than specified days)
      */
-    public void deleteOldLogs(int days) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        List<AuditLog> oldLogs = auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(
-            LocalDateTime.MIN, cutoffDate
-        );
-        auditLogRepository.deleteAll(oldLogs);
+    public Map<String, Object> deleteOldLogs(int days) {
+        return auditRetentionService.purgeOlderThan(days);
     }
     
     /**
@@ -0,0 +1,277 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.AuditProperties;
+import com.sikhshan.dto.AuditEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for request audit logs.
+ *
+ * The interceptor only enqueues an {@link AuditEvent}; a single daemon thread drains
+ * the bounded queue and writes the events to audit_logs with JDBC batch inserts, then
+ * folds each written batch into the statistics rollups.
+ */
+@Service
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (timestamp, user_id, username, action, details, status, ip_address, " +
+            "user_agent, resource_type, resource_id, old_values, new_values, session_id, request_method, " +
+            "request_url, response_status, execution_time, error_message) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditProperties auditProperties;
+
+    @Autowired
+    private AuditRollupService auditRollupService;
+
+    @Autowired
+    private AuditSearchService auditSearchService;
+
+    private BlockingQueue<AuditEvent> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        AuditProperties.Writer config = auditProperties.getWriter();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.running = true;
+        this.writerThread = new Thread(this::drainLoop, "audit-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Audit log writer started (capacity={}, batchSize={}, flushIntervalMs={}, backpressure={})",
+                config.getQueueCapacity(), config.getBatchSize(), config.getFlushIntervalMs(), config.getBackpressure());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(auditProperties.getWriter().getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Audit log writer stopped with {} events still queued", queue.size());
+        }
+    }
+
+    /**
+     * Hand an audit event to the writer. Never throws; returns false if the event was dropped.
+     */
+    public boolean submit(AuditEvent event) {
+        AuditProperties.Writer config = auditProperties.getWriter();
+        boolean accepted;
+        switch (config.getBackpressure()) {
+            case BLOCK:
+                accepted = offerBlocking(event, config.getBlockTimeoutMs());
+                break;
+            case SAMPLE:
+                accepted = offerSampled(event, config.getSampleRate());
+                break;
+            case DROP_OLDEST:
+            default:
+                accepted = offerDropOldest(event);
+                break;
+        }
+
+        if (accepted) {
+            enqueuedCount.incrementAndGet();
+        } else {
+            droppedCount.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    private boolean offerBlocking(AuditEvent event, long timeoutMs) {
+        try {
+            return queue.offer(event, timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerDropOldest(AuditEvent event) {
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                droppedCount.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerSampled(AuditEvent event, int sampleRate) {
+        // Below the high-water mark every event is kept
+        if (queue.remainingCapacity() > queue.size()) {
+            return queue.offer(event);
+        }
+        if (sampleRate > 1 && sampleCounter.incrementAndGet() % sampleRate != 0) {
+            return false;
+        }
+        return queue.offer(event);
+    }
+
+    private void drainLoop() {
+        AuditProperties.Writer config = auditProperties.getWriter();
+        int batchSize = Math.max(1, config.getBatchSize());
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getFlushIntervalMs()));
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Keep filling the batch until it is full or the flush interval has elapsed
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                logger.error("Unexpected error in audit log writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<AuditEvent> written = batch;
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind);
+            batchCount.incrementAndGet();
+        } catch (Exception e) {
+            logger.warn("Failed to write batch of {} audit logs, retrying one by one: {}", batch.size(), e.getMessage());
+            written = writeEach(batch);
+        }
+        writtenCount.addAndGet(written.size());
+        if (written.isEmpty()) {
+            return;
+        }
+
+        // Keep the statistics counters in step with the rows actually written
+        auditRollupService.record(written);
+        auditSearchService.catchUp();
+    }
+
+    // Isolate the events that cannot be written so they do not take the rest of the batch with them
+    private List<AuditEvent> writeEach(List<AuditEvent> batch) {
+        List<AuditEvent> written = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+                written.add(event);
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                logger.error("Dropping audit log for {} {}: {}", event.getRequestMethod(), event.getRequestUrl(), e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private void bind(PreparedStatement ps, AuditEvent event) throws SQLException {
+        ps.setTimestamp(1, Timestamp.valueOf(event.getTimestamp()));
+        ps.setObject(2, event.getUserId(), Types.BIGINT);
+        ps.setString(3, event.getUsername());
+        ps.setString(4, event.getAction());
+        ps.setString(5, event.getDetails());
+        ps.setString(6, event.getStatus());
+        ps.setString(7, event.getIpAddress());
+        ps.setString(8, event.getUserAgent());
+        ps.setString(9, event.getResourceType());
+        ps.setObject(10, event.getResourceId(), Types.BIGINT);
+        ps.setString(11, event.getOldValues());
+        ps.setString(12, event.getNewValues());
+        ps.setString(13, event.getSessionId());
+        ps.setString(14, event.getRequestMethod());
+        ps.setString(15, event.getRequestUrl());
+        ps.setObject(16, event.getResponseStatus(), Types.INTEGER);
+        ps.setObject(17, event.getExecutionTime(), Types.BIGINT);
+        ps.setString(18, event.getErrorMessage());
+    }
+
+    // Metrics
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        stats.put("backpressure", auditProperties.getWriter().getBackpressure().name());
+        stats.put("enqueued", enqueuedCount.get());
+        stats.put("written", writtenCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("batches", batchCount.get());
+        return stats;
+    }
+}
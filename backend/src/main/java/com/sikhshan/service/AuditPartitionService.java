@@ -0,0 +1,156 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.AuditProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the monthly range partitions of audit_logs created by
+ * audit-logs-partitioning-migration.sql.
+ *
+ * Partitions are named p_YYYYMM and hold rows with timestamp before the first day of the
+ * following month; p_max catches anything later. On an unpartitioned table every method is a no-op.
+ */
+@Service
+public class AuditPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionService.class);
+
+    private static final String MAX_PARTITION = "p_max";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String PARTITIONS_SQL =
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditProperties auditProperties;
+
+    /**
+     * A monthly partition and its exclusive upper bound (null for p_max)
+     */
+    public static class Partition {
+        private final String name;
+        private final LocalDateTime upperBound;
+        private final long estimatedRows;
+
+        Partition(String name, LocalDateTime upperBound, long estimatedRows) {
+            this.name = name;
+            this.upperBound = upperBound;
+            this.estimatedRows = estimatedRows;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LocalDateTime getUpperBound() {
+            return upperBound;
+        }
+
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+    }
+
+    public List<Partition> getPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) -> {
+            String description = rs.getString("PARTITION_DESCRIPTION");
+            LocalDateTime bound = null;
+            if (description != null && !"MAXVALUE".equalsIgnoreCase(description)) {
+                bound = LocalDateTime.parse(description.replace("'", ""), BOUND_FORMAT);
+            }
+            return new Partition(rs.getString("PARTITION_NAME"), bound, rs.getLong("TABLE_ROWS"));
+        });
+    }
+
+    public boolean isPartitioned() {
+        return !getPartitions().isEmpty();
+    }
+
+    /**
+     * Create upcoming partitions on the audit.retention.partition-cron schedule. Runs even with
+     * retention disabled, so new rows never pile up in p_max.
+     */
+    @Scheduled(cron = "${audit.retention.partition-cron:0 0 3 * * *}")
+    public void scheduledMaintenance() {
+        try {
+            ensureFuturePartitions(auditProperties.getRetention().getPartitionMonthsAhead());
+        } catch (Exception e) {
+            logger.error("Audit log partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Split p_max so that monthly partitions exist up to monthsAhead months from now.
+     * Returns the names of the partitions created.
+     */
+    public synchronized List<String> ensureFuturePartitions(int monthsAhead) {
+        List<String> created = new ArrayList<>();
+        List<Partition> partitions = getPartitions();
+        if (partitions.isEmpty()) {
+            return created;
+        }
+
+        LocalDateTime highest = partitions.stream()
+                .map(Partition::getUpperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDateTime::compareTo)
+                .orElse(LocalDate.now().withDayOfMonth(1).atStartOfDay());
+        LocalDateTime target = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L).atStartOfDay();
+
+        while (highest.isBefore(target)) {
+            LocalDateTime next = highest.plusMonths(1);
+            String name = "p_" + highest.format(NAME_FORMAT);
+            jdbcTemplate.execute("ALTER TABLE audit_logs REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                    "PARTITION " + name + " VALUES LESS THAN ('" + next.format(BOUND_FORMAT) + "'), " +
+                    "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            created.add(name);
+            highest = next;
+        }
+
+        if (!created.isEmpty()) {
+            logger.info("Created audit log partitions {}", created);
+        }
+        return created;
+    }
+
+    /**
+     * Drop every partition whose rows are all older than the cutoff.
+     * Returns the dropped partitions; rows newer than the last dropped bound are left in place.
+     */
+    public List<Partition> dropPartitionsBefore(LocalDateTime cutoff) {
+        List<Partition> expired = new ArrayList<>();
+        for (Partition partition : getPartitions()) {
+            if (partition.getUpperBound() != null && !partition.getUpperBound().isAfter(cutoff)) {
+                expired.add(partition);
+            }
+        }
+        if (expired.isEmpty()) {
+            return expired;
+        }
+
+        List<String> names = new ArrayList<>();
+        for (Partition partition : expired) {
+            names.add(partition.getName());
+        }
+        jdbcTemplate.execute("ALTER TABLE audit_logs DROP PARTITION " + String.join(", ", names));
+        logger.info("Dropped audit log partitions {} (cutoff {})", names, cutoff);
+        return expired;
+    }
+}
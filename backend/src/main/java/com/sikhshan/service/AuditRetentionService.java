@@ -0,0 +1,166 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.AuditProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Purges audit logs older than the retention period.
+ *
+ * When audit_logs is partitioned by month, whole expired partitions are dropped first.
+ * Remaining rows are deleted in bounded primary-key ranges, each DELETE committing on its own,
+ * with a pause between chunks so the purge never holds long locks or loads entities.
+ */
+@Service
+public class AuditRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRetentionService.class);
+
+    private static final String ID_RANGE_SQL =
+            "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM audit_logs WHERE timestamp < ?";
+
+    private static final String DELETE_CHUNK_SQL =
+            "DELETE FROM audit_logs WHERE id >= ? AND id < ? AND timestamp < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditProperties auditProperties;
+
+    @Autowired
+    private AuditPartitionService auditPartitionService;
+
+    @Autowired
+    private AuditRollupService auditRollupService;
+
+    @Autowired
+    private AuditSearchService auditSearchService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun;
+
+    /**
+     * Apply the configured retention policy on the audit.retention.cron schedule
+     */
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        AuditProperties.Retention retention = auditProperties.getRetention();
+        if (!retention.isEnabled()) {
+            return;
+        }
+        purgeOlderThan(retention.getDays());
+    }
+
+    /**
+     * Delete audit logs older than the given number of days and return a report of the run
+     */
+    public Map<String, Object> purgeOlderThan(int days) {
+        if (!running.compareAndSet(false, true)) {
+            Map<String, Object> busy = new HashMap<>();
+            busy.put("status", "ALREADY_RUNNING");
+            return busy;
+        }
+        try {
+            return purge(LocalDateTime.now().minusDays(days));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    private Map<String, Object> purge(LocalDateTime cutoff) {
+        AuditProperties.Retention retention = auditProperties.getRetention();
+        int chunkSize = Math.max(1, retention.getChunkSize());
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+        long start = System.nanoTime();
+        long deleted = 0;
+        int chunks = 0;
+        String status = "COMPLETED";
+        List<String> partitionsCreated = new ArrayList<>();
+        List<String> partitionsDropped = new ArrayList<>();
+        long partitionRowsDropped = 0;
+
+        // Metadata-only retention on a partitioned table
+        try {
+            partitionsCreated = auditPartitionService.ensureFuturePartitions(retention.getPartitionMonthsAhead());
+            for (AuditPartitionService.Partition partition : auditPartitionService.dropPartitionsBefore(cutoff)) {
+                partitionsDropped.add(partition.getName());
+                partitionRowsDropped += partition.getEstimatedRows();
+            }
+        } catch (Exception e) {
+            logger.error("Audit log partition maintenance failed, falling back to row deletes: {}", e.getMessage());
+        }
+
+        // Index-driven bounds of the rows to purge
+        Map<String, Object> range = jdbcTemplate.queryForMap(ID_RANGE_SQL, cutoffTimestamp);
+        Number minId = (Number) range.get("min_id");
+        Number maxId = (Number) range.get("max_id");
+
+        if (minId != null && maxId != null) {
+            try {
+                for (long from = minId.longValue(); from <= maxId.longValue(); from += chunkSize) {
+                    deleted += jdbcTemplate.update(DELETE_CHUNK_SQL, from, from + chunkSize, cutoffTimestamp);
+                    chunks++;
+                    if (retention.getThrottleMs() > 0 && from + chunkSize <= maxId.longValue()) {
+                        Thread.sleep(retention.getThrottleMs());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                status = "INTERRUPTED";
+            } catch (Exception e) {
+                status = "FAILED";
+                logger.error("Audit log purge failed after {} rows: {}", deleted, e.getMessage());
+            }
+        }
+
+        try {
+            auditRollupService.pruneBuckets(cutoff);
+        } catch (Exception e) {
+            logger.error("Failed to prune audit rollup buckets: {}", e.getMessage());
+        }
+
+        long searchRowsDeleted = 0;
+        try {
+            searchRowsDeleted = auditSearchService.purgeBefore(cutoff, chunkSize);
+        } catch (Exception e) {
+            logger.error("Failed to purge audit search rows: {}", e.getMessage());
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Map<String, Object> report = new HashMap<>();
+        report.put("status", status);
+        report.put("cutoff", cutoff.toString());
+        report.put("rowsDeleted", deleted);
+        report.put("chunks", chunks);
+        report.put("chunkSize", chunkSize);
+        report.put("partitionsCreated", partitionsCreated);
+        report.put("partitionsDropped", partitionsDropped);
+        report.put("partitionRowsDropped", partitionRowsDropped); // estimate from table statistics
+        report.put("searchRowsDeleted", searchRowsDeleted);
+        report.put("elapsedMs", elapsedMs);
+        report.put("rowsPerSecond", elapsedMs > 0 ? deleted * 1000.0 / elapsedMs : (double) deleted);
+        report.put("finishedAt", LocalDateTime.now().toString());
+        lastRun = report;
+
+        logger.info("Audit log purge {}: {} partitions dropped, {} rows older than {} deleted in {} chunks, {} ms",
+                status, partitionsDropped.size(), deleted, cutoff, chunks, elapsedMs);
+        return report;
+    }
+}
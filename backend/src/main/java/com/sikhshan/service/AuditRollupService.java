@@ -0,0 +1,197 @@
+package com.sikhshan.service;
+
+import com.sikhshan.dto.AuditEvent;
+import com.sikhshan.model.AuditLog;
+import com.sikhshan.model.AuditLogRollup;
+import com.sikhshan.repository.AuditLogRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-minute and per-day audit counters by action, status, user and resource type.
+ *
+ * The audit writer folds each written batch into counter deltas and applies them with one
+ * batched upsert, so statistics are read from a few hundred buckets instead of the raw log.
+ */
+@Service
+public class AuditRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count)";
+
+    // Minute buckets only serve the last-24h figure
+    private static final long MINUTE_BUCKET_RETENTION_HOURS = 48;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditLogRollupRepository rollupRepository;
+
+    /**
+     * Add a batch of written audit events to the counters
+     */
+    public void record(Collection<AuditEvent> events) {
+        Map<BucketKey, long[]> deltas = new HashMap<>();
+        for (AuditEvent event : events) {
+            fold(deltas, event.getTimestamp(), event.getAction(), event.getStatus(),
+                    event.getUsername(), event.getResourceType());
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Add a single audit log saved outside the writer to the counters
+     */
+    public void record(AuditLog auditLog) {
+        Map<BucketKey, long[]> deltas = new HashMap<>();
+        fold(deltas, auditLog.getTimestamp(), auditLog.getAction(), auditLog.getStatus(),
+                auditLog.getUsername(), auditLog.getResourceType());
+        apply(deltas);
+    }
+
+    private void fold(Map<BucketKey, long[]> deltas, LocalDateTime timestamp, String action, String status,
+                      String username, String resourceType) {
+        LocalDateTime time = timestamp != null ? timestamp : LocalDateTime.now();
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+
+        // Minute buckets: totals and statuses; day buckets: every dimension
+        increment(deltas, AuditLogRollup.MINUTE, minute, AuditLogRollup.TOTAL, AuditLogRollup.TOTAL);
+        increment(deltas, AuditLogRollup.MINUTE, minute, AuditLogRollup.STATUS, status);
+        increment(deltas, AuditLogRollup.DAY, day, AuditLogRollup.TOTAL, AuditLogRollup.TOTAL);
+        increment(deltas, AuditLogRollup.DAY, day, AuditLogRollup.ACTION, action);
+        increment(deltas, AuditLogRollup.DAY, day, AuditLogRollup.STATUS, status);
+        increment(deltas, AuditLogRollup.DAY, day, AuditLogRollup.USER, username);
+        if (resourceType != null) {
+            increment(deltas, AuditLogRollup.DAY, day, AuditLogRollup.RESOURCE_TYPE, resourceType);
+        }
+    }
+
+    private void increment(Map<BucketKey, long[]> deltas, String granularity, LocalDateTime bucket,
+                           String dimension, String value) {
+        if (value == null) {
+            return;
+        }
+        deltas.computeIfAbsent(new BucketKey(granularity, bucket, dimension, value), key -> new long[1])[0]++;
+    }
+
+    private void apply(Map<BucketKey, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (Map.Entry<BucketKey, long[]> entry : deltas.entrySet()) {
+            BucketKey key = entry.getKey();
+            batchArgs.add(new Object[] {
+                    key.granularity, Timestamp.valueOf(key.bucketStart), key.dimension, key.value, entry.getValue()[0]
+            });
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+        } catch (Exception e) {
+            logger.error("Failed to update {} audit rollup buckets: {}", batchArgs.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Audit statistics answered from the rollup buckets
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Long> statusStats = sumByDimension(AuditLogRollup.STATUS);
+        stats.put("actionCounts", sumByDimension(AuditLogRollup.ACTION));
+        stats.put("statusCounts", statusStats);
+        stats.put("userCounts", sumByDimension(AuditLogRollup.USER));
+        stats.put("resourceTypeCounts", sumByDimension(AuditLogRollup.RESOURCE_TYPE));
+
+        // Count by date (last 7 days)
+        Map<String, Long> dateStats = new LinkedHashMap<>();
+        for (AuditLogRollup bucket : rollupRepository.findRecentBuckets(AuditLogRollup.DAY, AuditLogRollup.TOTAL,
+                AuditLogRollup.TOTAL, PageRequest.of(0, 7))) {
+            dateStats.put(bucket.getBucketStart().toLocalDate().toString(), bucket.getEventCount());
+        }
+        stats.put("dateCounts", dateStats);
+
+        Map<String, Long> totals = sumByDimension(AuditLogRollup.TOTAL);
+        stats.put("totalLogs", totals.getOrDefault(AuditLogRollup.TOTAL, 0L));
+
+        LocalDateTime dayAgo = LocalDateTime.now().minusHours(24).truncatedTo(ChronoUnit.MINUTES);
+        stats.put("recentLogsCount", rollupRepository.sumSince(AuditLogRollup.MINUTE, AuditLogRollup.TOTAL,
+                AuditLogRollup.TOTAL, dayAgo));
+        stats.put("errorLogsCount", statusStats.getOrDefault("ERROR", 0L));
+        return stats;
+    }
+
+    /**
+     * Drop minute buckets no longer needed and day buckets for days the raw log no longer holds
+     */
+    public void pruneBuckets(LocalDateTime rawRetentionCutoff) {
+        int minutes = rollupRepository.deleteBucketsBefore(AuditLogRollup.MINUTE,
+                LocalDateTime.now().minusHours(MINUTE_BUCKET_RETENTION_HOURS));
+        int days = rollupRepository.deleteBucketsBefore(AuditLogRollup.DAY,
+                rawRetentionCutoff.truncatedTo(ChronoUnit.DAYS));
+        logger.info("Pruned {} minute and {} day audit rollup buckets", minutes, days);
+    }
+
+    private Map<String, Long> sumByDimension(String dimension) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : rollupRepository.sumByDimension(AuditLogRollup.DAY, dimension)) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static final class BucketKey {
+        private final String granularity;
+        private final LocalDateTime bucketStart;
+        private final String dimension;
+        private final String value;
+
+        BucketKey(String granularity, LocalDateTime bucketStart, String dimension, String value) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.dimension = dimension;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey other = (BucketKey) o;
+            return granularity.equals(other.granularity) && bucketStart.equals(other.bucketStart)
+                    && dimension.equals(other.dimension) && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = granularity.hashCode();
+            result = 31 * result + bucketStart.hashCode();
+            result = 31 * result + dimension.hashCode();
+            result = 31 * result + value.hashCode();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.sikhshan.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full-text search over audit log details, usernames and request URLs.
+ *
+ * MySQL cannot put a FULLTEXT index on a partitioned table, so the searchable columns are
+ * copied into audit_log_search (see audit-log-search-migration.sql), which carries the index.
+ * The audit writer calls {@link #catchUp()} after each batch to copy newly written rows.
+ * Only the ranked search uses the index; the filtered queries and the export keep their exact
+ * substring match on details.
+ */
+@Service
+public class AuditSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSearchService.class);
+
+    private static final int CATCH_UP_BATCH = 5000;
+
+    // Ids are allocated before rows commit, so a row below the high-water mark can appear late;
+    // this many ids below it are copied again (INSERT IGNORE skips the ones already there)
+    private static final int RESCAN_WINDOW = 1000;
+
+    // MySQL error for a table that does not exist
+    private static final String TABLE_MISSING_STATE = "42S02";
+
+    private static final String HIGH_WATER_MARK_SQL =
+            "SELECT COALESCE(MAX(audit_log_id), 0) FROM audit_log_search";
+
+    private static final String CATCH_UP_SQL =
+            "INSERT IGNORE INTO audit_log_search (audit_log_id, timestamp, username, details, request_url) " +
+            "SELECT id, timestamp, username, details, request_url FROM audit_logs " +
+            "WHERE id > ? AND id <= ? ORDER BY id";
+
+    private static final String MAX_LOG_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM audit_logs";
+
+    private static final String MATCH = "MATCH(details, username, request_url) AGAINST (? IN NATURAL LANGUAGE MODE)";
+
+    private static final String SEARCH_SQL =
+            "SELECT audit_log_id FROM audit_log_search WHERE " + MATCH +
+            " ORDER BY " + MATCH + " DESC, audit_log_id DESC LIMIT ? OFFSET ?";
+
+    private static final String COUNT_SQL =
+            "SELECT COUNT(*) FROM audit_log_search WHERE " + MATCH;
+
+    private static final String PURGE_SQL =
+            "DELETE FROM audit_log_search WHERE timestamp < ? LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong indexedUpTo = new AtomicLong(-1);
+    private volatile boolean available = true;
+
+    /**
+     * Copy audit logs written since the last call into the search table
+     */
+    public synchronized void catchUp() {
+        if (!available) {
+            return;
+        }
+        try {
+            if (indexedUpTo.get() < 0) {
+                indexedUpTo.set(jdbcTemplate.queryForObject(HIGH_WATER_MARK_SQL, Long.class));
+            }
+            long maxId = jdbcTemplate.queryForObject(MAX_LOG_ID_SQL, Long.class);
+            // Copy in bounded id ranges so a large backlog never becomes one huge statement
+            for (long from = Math.max(0, indexedUpTo.get() - RESCAN_WINDOW); from < maxId; from += CATCH_UP_BATCH) {
+                long to = Math.min(from + CATCH_UP_BATCH, maxId);
+                jdbcTemplate.update(CATCH_UP_SQL, from, to);
+                indexedUpTo.set(Math.max(indexedUpTo.get(), to));
+            }
+        } catch (BadSqlGrammarException e) {
+            if (TABLE_MISSING_STATE.equals(e.getSQLException().getSQLState())) {
+                // The migration has not been applied; stop trying until restart
+                available = false;
+                logger.warn("Audit log search index disabled: {}", e.getMessage());
+            } else {
+                logger.warn("Audit log search catch-up failed, retrying with the next batch: {}", e.getMessage());
+            }
+        } catch (Exception e) {
+            logger.warn("Audit log search catch-up failed, retrying with the next batch: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * IDs of the best-matching audit logs, most relevant first
+     */
+    public List<Long> searchIds(String query, int offset, int limit) {
+        return jdbcTemplate.queryForList(SEARCH_SQL, Long.class, query, query, limit, offset);
+    }
+
+    public long count(String query) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, query);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Remove search rows older than the retention cutoff in bounded chunks; returns rows removed
+     */
+    public long purgeBefore(LocalDateTime cutoff, int chunkSize) {
+        if (!available) {
+            return 0;
+        }
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(cutoff), chunkSize);
+            removed += deleted;
+        } while (deleted == chunkSize);
+        return removed;
+    }
+}
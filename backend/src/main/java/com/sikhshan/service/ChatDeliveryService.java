@@ -0,0 +1,110 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.ChatProperties;
+import com.sikhshan.dto.MessageRequest;
+import com.sikhshan.dto.MessageResponse;
+import com.sikhshan.dto.WebSocketMessage;
+import com.sikhshan.model.Message;
+import com.sikhshan.model.User;
+import com.sikhshan.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery-first send path for STOMP chat messages.
+ *
+ * The sender is authorised from cached room membership, the message gets the room's next
+ * sequence number and is broadcast to the room topic straight away; storing it is left to
+ * {@link ChatMessagePersister}. Clients order messages by sequence and learn the database id
+ * from the MESSAGE_PERSISTED acknowledgement.
+ */
+@Service
+public class ChatDeliveryService {
+
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+
+    @Autowired
+    private ChatSequenceAllocator chatSequenceAllocator;
+
+    @Autowired
+    private ChatMessagePersister chatMessagePersister;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ChatProperties chatProperties;
+
+    private final Map<Long, CachedSender> senders = new ConcurrentHashMap<>();
+
+    private static final class CachedSender {
+        private final MessageResponse.SenderInfo info;
+        private final long loadedAt = System.currentTimeMillis();
+
+        CachedSender(MessageResponse.SenderInfo info) {
+            this.info = info;
+        }
+    }
+
+    public MessageResponse send(MessageRequest request, Long senderId) {
+        Long chatRoomId = request.getChatRoomId();
+        if (!chatMembershipCache.isMember(chatRoomId, senderId)) {
+            throw new RuntimeException("User not authorized to send message to this chat room");
+        }
+        if (request.getContent() == null) {
+            throw new RuntimeException("Message content is required");
+        }
+        Message.MessageType messageType = Message.MessageType.valueOf(request.getMessageType());
+
+        MessageResponse message = new MessageResponse();
+        message.setChatRoomId(chatRoomId);
+        message.setSender(getSenderInfo(senderId));
+        message.setContent(request.getContent());
+        message.setMessageType(messageType.name());
+        message.setFileUrl(request.getFileUrl());
+        message.setCreatedAt(LocalDateTime.now());
+        message.setIsRead(false);
+        message.setIsDeleted(false);
+        message.setSequence(chatSequenceAllocator.next(chatRoomId));
+
+        messagingTemplate.convertAndSend("/topic/chat/" + chatRoomId, WebSocketMessage.newMessage(message));
+        // Not counted if the recipient marked the room read after the sequence was assigned
+        Long recipientId = chatMembershipCache.getOtherMember(chatRoomId, senderId);
+        if (!chatMessagePersister.isRead(message, recipientId)) {
+            unreadCounterService.increment(chatRoomId, recipientId);
+        }
+
+        // Reports the message as failed itself if the queue is full
+        chatMessagePersister.submit(message);
+        return message;
+    }
+
+    private MessageResponse.SenderInfo getSenderInfo(Long senderId) {
+        CachedSender cached = senders.get(senderId);
+        if (cached == null || System.currentTimeMillis() - cached.loadedAt > chatProperties.getDelivery().getSenderCacheTtlMs()) {
+            User sender = userRepository.findById(senderId)
+                    .orElseThrow(() -> new RuntimeException("Sender not found"));
+            cached = new CachedSender(new MessageResponse.SenderInfo(
+                    sender.getId(),
+                    sender.getName(),
+                    sender.getEmail(),
+                    sender.getProfilePictureUrl(),
+                    sender.getRole().name()
+            ));
+            senders.put(senderId, cached);
+        }
+        return cached.info;
+    }
+}
@@ -0,0 +1,155 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.ChatProperties;
+import com.sikhshan.repository.ChatRoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded cache of the two participants of each chat room, filled on first access and when
+ * a room is created.
+ *
+ * A room's participants never change, so authorization checks on the chat path can be answered
+ * from memory. Rooms that do not exist are not cached; they may be created later. Rooms go away
+ * only when one of their users is deleted, which must call {@link #invalidateUser(Long)}.
+ */
+@Service
+public class ChatMembershipCache {
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private ChatProperties chatProperties;
+
+    private final Map<Long, Members> members = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public boolean exists(Long chatRoomId) {
+        return get(chatRoomId) != null;
+    }
+
+    public boolean isMember(Long chatRoomId, Long userId) {
+        Members room = get(chatRoomId);
+        return room != null && room.contains(userId);
+    }
+
+    /**
+     * Whether the user is in the room, or null if the room does not exist
+     */
+    public Boolean checkMember(Long chatRoomId, Long userId) {
+        Members room = get(chatRoomId);
+        return room != null ? room.contains(userId) : null;
+    }
+
+    /**
+     * The participant of the room that is not the given user, or null if the user is not in the room
+     */
+    public Long getOtherMember(Long chatRoomId, Long userId) {
+        Members room = get(chatRoomId);
+        return room != null && room.contains(userId) ? room.other(userId) : null;
+    }
+
+    public void put(Long chatRoomId, Long user1Id, Long user2Id) {
+        int maxSize = chatProperties.getMembership().getCacheMaxSize();
+        if (maxSize <= 0) {
+            return;
+        }
+        if (members.size() >= maxSize && !members.containsKey(chatRoomId)) {
+            evict(maxSize);
+        }
+        members.put(chatRoomId, new Members(user1Id, user2Id));
+    }
+
+    public void invalidate(Long chatRoomId) {
+        members.remove(chatRoomId);
+    }
+
+    /**
+     * Forget every room the user is in; their rooms are removed with the user
+     */
+    public void invalidateUser(Long userId) {
+        members.values().removeIf(room -> room.contains(userId));
+    }
+
+    public void clear() {
+        members.clear();
+    }
+
+    private Members get(Long chatRoomId) {
+        if (chatRoomId == null) {
+            return null;
+        }
+        Members room = members.get(chatRoomId);
+        if (room != null) {
+            hits.incrementAndGet();
+            return room;
+        }
+
+        misses.incrementAndGet();
+        List<Object[]> rows = chatRoomRepository.findUserIdsById(chatRoomId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        room = new Members((Long) rows.get(0)[0], (Long) rows.get(0)[1]);
+        put(chatRoomId, room.user1Id, room.user2Id);
+        return room;
+    }
+
+    // Drop an arbitrary tenth of the cache; evicted rooms are reloaded on their next access
+    private void evict(int maxSize) {
+        int toRemove = members.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<Long> it = members.keySet().iterator();
+        while (toRemove > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+            toRemove--;
+        }
+    }
+
+    // Metrics
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    private static final class Members {
+        private final Long user1Id;
+        private final Long user2Id;
+
+        Members(Long user1Id, Long user2Id) {
+            this.user1Id = user1Id;
+            this.user2Id = user2Id;
+        }
+
+        boolean contains(Long userId) {
+            return user1Id.equals(userId) || user2Id.equals(userId);
+        }
+
+        Long other(Long userId) {
+            return user1Id.equals(userId) ? user2Id : user1Id;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.ChatProperties;
+import com.sikhshan.dto.MessageResponse;
+import com.sikhshan.dto.WebSocketMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for chat messages sent over STOMP.
+ *
+ * Messages are broadcast before they are stored; this writer drains them from a bounded queue
+ * and inserts them in JDBC batches, together with the rooms' last_message_at. A failed batch is
+ * written message by message straight away, so one bad message cannot hold up the rest; messages
+ * that still fail are set aside and retried with backoff between later batches rather than
+ * blocking the writer. Each stored message is acknowledged on the room topic with its database id
+ * (MESSAGE_PERSISTED); a message that cannot be stored is reported as MESSAGE_FAILED and taken
+ * back off the recipient's unread count. Messages the recipient marked read while they were still
+ * queued are stored as read (see {@link #markRead(Long, Long)}).
+ */
+@Service
+public class ChatMessagePersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatMessagePersister.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO message (chat_room_id, sender_id, content, message_type, file_url, created_at, " +
+            "is_read, is_deleted, room_sequence) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, ?)";
+
+    private static final String UPDATE_ROOM_SQL =
+            "UPDATE chat_room SET last_message_at = ? WHERE id = ? AND (last_message_at IS NULL OR last_message_at < ?)";
+
+    private static final String FIND_ID_SQL =
+            "SELECT id FROM message WHERE chat_room_id = ? AND room_sequence = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private ChatSequenceAllocator chatSequenceAllocator;
+
+    @Autowired
+    private ChatProperties chatProperties;
+
+    private BlockingQueue<MessageResponse> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // Messages waiting for another attempt; only touched by the writer thread
+    private final List<Pending> retries = new ArrayList<>();
+
+    // chatRoomId -> reader id -> highest sequence the reader has marked read
+    private final Map<Long, Map<Long, Long>> readThrough = new ConcurrentHashMap<>();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        ChatProperties.Delivery config = chatProperties.getDelivery();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.running = true;
+        this.writerThread = new Thread(this::drainLoop, "chat-message-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Chat message writer started (capacity={}, batchSize={}, flushIntervalMs={})",
+                config.getQueueCapacity(), config.getBatchSize(), config.getFlushIntervalMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(chatProperties.getDelivery().getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Whatever the writer did not get to is written here once; clients are told about the rest
+        List<MessageResponse> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        logger.warn("Chat message writer stopped with {} messages still queued, writing them now", remaining.size());
+        try {
+            write(remaining);
+            acknowledge(remaining);
+        } catch (Exception e) {
+            logger.error("Failed to write {} chat messages on shutdown: {}", remaining.size(), e.getMessage());
+            remaining.forEach(this::fail);
+        }
+    }
+
+    /**
+     * Queue a broadcast message for storage. If the queue is full the message is reported as
+     * failed and false is returned.
+     */
+    public boolean submit(MessageResponse message) {
+        if (queue.offer(message)) {
+            return true;
+        }
+        logger.error("Chat message queue full, dropping message {}#{}", message.getChatRoomId(), message.getSequence());
+        fail(message);
+        return false;
+    }
+
+    /**
+     * Record that the reader has read the room up to its latest sequence. The bulk UPDATE that marks
+     * stored messages read cannot see the ones still queued, so those are inserted as read instead.
+     */
+    public void markRead(Long chatRoomId, Long readerId) {
+        readThrough.computeIfAbsent(chatRoomId, id -> new ConcurrentHashMap<>())
+                .merge(readerId, chatSequenceAllocator.current(chatRoomId), Math::max);
+    }
+
+    /**
+     * Whether the recipient had already marked the room read past this message when it was sent
+     */
+    boolean isRead(MessageResponse message, Long recipientId) {
+        Map<Long, Long> readers = readThrough.get(message.getChatRoomId());
+        Long through = readers != null && recipientId != null ? readers.get(recipientId) : null;
+        return through != null && message.getSequence() <= through;
+    }
+
+    private void drainLoop() {
+        ChatProperties.Delivery config = chatProperties.getDelivery();
+        int batchSize = Math.max(1, config.getBatchSize());
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getFlushIntervalMs()));
+        List<MessageResponse> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                flush(dueRetries(batchSize));
+
+                MessageResponse first = queue.poll(pollTimeout(flushIntervalNanos), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Keep filling the batch until it is full or the flush interval has elapsed
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    MessageResponse next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                List<Pending> pending = new ArrayList<>(batch.size());
+                for (MessageResponse message : batch) {
+                    pending.add(new Pending(message, 0));
+                }
+                flush(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                logger.error("Unexpected error in chat message writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        for (Pending pending : retries) {
+            failedCount.incrementAndGet();
+            fail(pending.message);
+        }
+        retries.clear();
+    }
+
+    // Wait no longer than the next retry is due
+    private long pollTimeout(long flushIntervalNanos) {
+        long timeout = flushIntervalNanos;
+        long now = System.nanoTime();
+        for (Pending pending : retries) {
+            timeout = Math.min(timeout, Math.max(0, pending.dueAt - now));
+        }
+        return timeout;
+    }
+
+    private List<Pending> dueRetries(int batchSize) {
+        List<Pending> due = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Iterator<Pending> it = retries.iterator(); it.hasNext() && due.size() < batchSize; ) {
+            Pending pending = it.next();
+            if (pending.dueAt - now <= 0) {
+                due.add(pending);
+                it.remove();
+            }
+        }
+        return due;
+    }
+
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<MessageResponse> messages = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            messages.add(pending.message);
+        }
+
+        try {
+            write(messages);
+            acknowledge(messages);
+            return;
+        } catch (Exception e) {
+            logger.warn("Failed to write batch of {} chat messages: {}", batch.size(), e.getMessage());
+            if (isUnavailable(e)) {
+                // Writing one by one would only wait on the database once per message
+                batch.forEach(pending -> retryOrFail(pending, e));
+                return;
+            }
+        }
+
+        // Isolate the messages that cannot be written
+        for (Pending pending : batch) {
+            MessageResponse message = pending.message;
+            try {
+                try {
+                    write(List.of(message));
+                } catch (DuplicateKeyException e) {
+                    // An earlier attempt was committed even though it reported a failure
+                    message.setId(jdbcTemplate.queryForObject(FIND_ID_SQL, Long.class,
+                            message.getChatRoomId(), message.getSequence()));
+                }
+            } catch (Exception e) {
+                retryOrFail(pending, e);
+                continue;
+            }
+            acknowledge(List.of(message));
+        }
+    }
+
+    private boolean isUnavailable(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void retryOrFail(Pending pending, Exception e) {
+        ChatProperties.Delivery config = chatProperties.getDelivery();
+        int attempts = pending.attempts + 1;
+        if (attempts < config.getMaxAttempts()) {
+            retriedCount.incrementAndGet();
+            long backoffNanos = TimeUnit.MILLISECONDS.toNanos(config.getRetryBackoffMs() * attempts);
+            retries.add(new Pending(pending.message, attempts, System.nanoTime() + backoffNanos));
+            return;
+        }
+        MessageResponse message = pending.message;
+        failedCount.incrementAndGet();
+        logger.error("Dropping chat message {}#{} from user {}: {}", message.getChatRoomId(),
+                message.getSequence(), message.getSender().getId(), e.getMessage());
+        fail(message);
+    }
+
+    // Tell the room the message is lost and take it back off the recipient's unread count
+    private void fail(MessageResponse message) {
+        Long chatRoomId = message.getChatRoomId();
+        try {
+            messagingTemplate.convertAndSend("/topic/chat/" + chatRoomId, WebSocketMessage.messageFailed(message));
+            Long recipientId = chatMembershipCache.getOtherMember(chatRoomId, message.getSender().getId());
+            if (recipientId != null && !isRead(message, recipientId)) {
+                unreadCounterService.decrement(chatRoomId, recipientId);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to report chat message {}#{} as failed: {}", chatRoomId,
+                    message.getSequence(), e.getMessage());
+        }
+    }
+
+    // Inserts the messages and moves each room's last_message_at in one transaction, setting the generated ids
+    private void write(List<MessageResponse> batch) {
+        Map<Long, LocalDateTime> lastMessageAt = new HashMap<>();
+        for (MessageResponse message : batch) {
+            lastMessageAt.merge(message.getChatRoomId(), message.getCreatedAt(),
+                    (a, b) -> a.isAfter(b) ? a : b);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (MessageResponse message : batch) {
+                        message.setIsRead(isRead(message, chatMembershipCache.getOtherMember(
+                                message.getChatRoomId(), message.getSender().getId())));
+                        ps.setLong(1, message.getChatRoomId());
+                        ps.setLong(2, message.getSender().getId());
+                        ps.setString(3, message.getContent());
+                        ps.setString(4, message.getMessageType());
+                        ps.setString(5, message.getFileUrl());
+                        ps.setTimestamp(6, Timestamp.valueOf(message.getCreatedAt()));
+                        ps.setBoolean(7, message.getIsRead());
+                        ps.setLong(8, message.getSequence());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (int i = 0; i < batch.size() && keys.next(); i++) {
+                            batch.get(i).setId(keys.getLong(1));
+                        }
+                    }
+                }
+                return null;
+            });
+
+            List<Object[]> roomArgs = new ArrayList<>(lastMessageAt.size());
+            for (Map.Entry<Long, LocalDateTime> entry : lastMessageAt.entrySet()) {
+                Timestamp at = Timestamp.valueOf(entry.getValue());
+                roomArgs.add(new Object[] { at, entry.getKey(), at });
+            }
+            jdbcTemplate.batchUpdate(UPDATE_ROOM_SQL, roomArgs);
+        });
+    }
+
+    private void acknowledge(List<MessageResponse> messages) {
+        writtenCount.addAndGet(messages.size());
+        for (MessageResponse message : messages) {
+            try {
+                messagingTemplate.convertAndSend("/topic/chat/" + message.getChatRoomId(),
+                        WebSocketMessage.messagePersisted(message));
+            } catch (Exception e) {
+                logger.warn("Failed to acknowledge chat message {}: {}", message.getId(), e.getMessage());
+            }
+        }
+    }
+
+    // Metrics
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    private static final class Pending {
+        private final MessageResponse message;
+        private final int attempts;
+        private final long dueAt;
+
+        Pending(MessageResponse message, int attempts) {
+            this(message, attempts, 0);
+        }
+
+        Pending(MessageResponse message, int attempts, long dueAt) {
+            this.message = message;
+            this.attempts = attempts;
+            this.dueAt = dueAt;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.sikhshan.service;
+
+import com.sikhshan.repository.MessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the per-room sequence numbers that order chat messages.
+ *
+ * Each room's counter starts from the highest sequence stored in message and is then kept in
+ * memory, so numbers can be assigned before a message is written. Like the simple STOMP broker,
+ * this assumes a single application instance.
+ */
+@Service
+public class ChatSequenceAllocator {
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    private final Map<Long, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    public long next(Long chatRoomId) {
+        return sequences.computeIfAbsent(chatRoomId, this::load).incrementAndGet();
+    }
+
+    /**
+     * Highest sequence handed out in the room so far
+     */
+    public long current(Long chatRoomId) {
+        return sequences.computeIfAbsent(chatRoomId, this::load).get();
+    }
+
+    private AtomicLong load(Long chatRoomId) {
+        Long max = messageRepository.findMaxRoomSequenceByChatRoomId(chatRoomId);
+        return new AtomicLong(max != null ? max : 0);
+    }
+}
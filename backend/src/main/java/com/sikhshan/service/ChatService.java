@@ -5,7 +5,6 @@ import com.sikhshan.model.*;
 import com.sikhshan.repository.ChatRoomRepository;
 import com.sikhshan.repository.MessageRepository;
 import com.sikhshan.repository.UserRepository;
-import com.sikhshan.repository.UserStatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -13,8 +12,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -32,7 +33,19 @@ public class ChatService {
     private UserRepository userRepository;
     
     @Autowired
-    private UserStatusRepository userStatusRepository;
+    private PresenceRegistry presenceRegistry;
+    
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+    
+    @Autowired
+    private ChatSequenceAllocator chatSequenceAllocator;
+    
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+    
+    @Autowired
+    private ChatMessagePersister chatMessagePersister;
     
     // Chat Room Operations
     
@@ -40,6 +53,7 @@ public class ChatService {
         // Check if chat room already exists
         Optional<ChatRoom> existingChatRoom = chatRoomRepository.findByUsers(request.getUser1Id(), request.getUser2Id());
         if (existingChatRoom.isPresent()) {
+            cacheMembers(existingChatRoom.get());
             return toChatRoomResponse(existingChatRoom.get());
         }
         
@@ -52,26 +66,37 @@ public class ChatService {
         // Create new chat room
         ChatRoom chatRoom = new ChatRoom(user1, user2);
         ChatRoom savedChatRoom = chatRoomRepository.save(chatRoom);
+        cacheMembers(savedChatRoom);
         
         return toChatRoomResponse(savedChatRoom);
     }
     
     public List<ChatRoomResponse> getChatRoomsForUser(Long userId) {
         List<ChatRoom> chatRooms = chatRoomRepository.findByUserIdOrderByLastMessageAtDesc(userId);
+        if (chatRooms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Last message of every room in one query instead of one per room
+        chatRooms.forEach(this::cacheMembers);
+        List<Long> chatRoomIds = chatRooms.stream().map(ChatRoom::getId).collect(Collectors.toList());
+        Map<Long, Message> lastMessages = new HashMap<>();
+        for (Message message : messageRepository.findLastMessagesByChatRoomIds(chatRoomIds)) {
+            lastMessages.put(message.getChatRoom().getId(), message);
+        }
+        
         return chatRooms.stream()
-                .map(this::toChatRoomResponse)
+                .map(chatRoom -> toChatRoomResponse(chatRoom, lastMessages.get(chatRoom.getId())))
                 .collect(Collectors.toList());
     }
     
     public ChatRoomResponse getChatRoomById(Long chatRoomId, Long userId) {
+        // Verify user is part of this chat room
+        authorize(chatRoomId, userId, "User not authorized to access this chat room");
+        
         ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
         
-        // Verify user is part of this chat room
-        if (!chatRoom.containsUser(userId)) {
-            throw new RuntimeException("User not authorized to access this chat room");
-        }
-        
         return toChatRoomResponse(chatRoom);
     }
     
@@ -86,14 +111,10 @@ public class ChatService {
     // Message Operations
     
     public MessageResponse sendMessage(MessageRequest request, Long senderId) {
-        // Get chat room
-        ChatRoom chatRoom = chatRoomRepository.findById(request.getChatRoomId())
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
-        
         // Verify sender is part of this chat room
-        if (!chatRoom.containsUser(senderId)) {
-            throw new RuntimeException("User not authorized to send message to this chat room");
-        }
+        Long chatRoomId = request.getChatRoomId();
+        authorize(chatRoomId, senderId, "User not authorized to send message to this chat room");
+        ChatRoom chatRoom = chatRoomRepository.getReferenceById(chatRoomId);
         
         // Get sender
         User sender = userRepository.findById(senderId)
@@ -106,27 +127,24 @@ public class ChatService {
         message.setContent(request.getContent());
         message.setMessageType(Message.MessageType.valueOf(request.getMessageType()));
         message.setFileUrl(request.getFileUrl());
+        message.setRoomSequence(chatSequenceAllocator.next(chatRoomId));
         
         Message savedMessage = messageRepository.save(message);
         
         // Update chat room's last message time
-        chatRoom.setLastMessageAt(LocalDateTime.now());
-        chatRoomRepository.save(chatRoom);
+        chatRoomRepository.updateLastMessageAt(chatRoomId, savedMessage.getCreatedAt());
+        
+        unreadCounterService.increment(chatRoomId, chatMembershipCache.getOtherMember(chatRoomId, senderId));
         
         return toMessageResponse(savedMessage);
     }
     
     public List<MessageResponse> getMessagesByChatRoom(Long chatRoomId, Long userId, int page, int size) {
         // Verify user is part of this chat room
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
-        
-        if (!chatRoom.containsUser(userId)) {
-            throw new RuntimeException("User not authorized to access this chat room");
-        }
+        authorize(chatRoomId, userId, "User not authorized to access this chat room");
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Message> messages = messageRepository.findByChatRoomIdOrderByCreatedAtDesc(chatRoomId, pageable);
+        Page<Message> messages = messageRepository.findByChatRoomIdOrderByRoomSequenceDesc(chatRoomId, pageable);
         
         return messages.getContent().stream()
                 .map(this::toMessageResponse)
@@ -155,61 +173,64 @@ public class ChatService {
     
     public void markMessagesAsRead(Long chatRoomId, Long userId) {
         // Verify user is part of this chat room
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
-        
-        if (!chatRoom.containsUser(userId)) {
-            throw new RuntimeException("User not authorized to access this chat room");
-        }
+        authorize(chatRoomId, userId, "User not authorized to access this chat room");
         
+        // Record the read first so messages still waiting to be stored are inserted as read
+        chatMessagePersister.markRead(chatRoomId, userId);
         messageRepository.markMessagesAsRead(chatRoomId, userId);
+        unreadCounterService.reset(chatRoomId, userId);
     }
     
     public Long getUnreadMessageCount(Long chatRoomId, Long userId) {
-        return messageRepository.countUnreadMessagesByChatRoomAndUser(chatRoomId, userId);
+        return unreadCounterService.getUnreadCount(chatRoomId, userId);
+    }
+    
+    /**
+     * Unread counts of all of a user's chat rooms, keyed by chat room id; rooms without unread messages are omitted
+     */
+    public Map<Long, Long> getUnreadMessageCounts(Long userId) {
+        return unreadCounterService.getUnreadCounts(userId);
     }
     
     // User Status Operations
     
+    // Presence lives in memory and is written to user_status in the background
+    
     public void markUserOnline(Long userId) {
-        UserStatus userStatus = userStatusRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-                    return new UserStatus(user);
-                });
-        
-        userStatus.markOnline();
-        userStatusRepository.save(userStatus);
+        presenceRegistry.markOnline(userId);
     }
     
     public void markUserOffline(Long userId) {
-        UserStatus userStatus = userStatusRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-                    return new UserStatus(user);
-                });
-        
-        userStatus.markOffline();
-        userStatusRepository.save(userStatus);
+        presenceRegistry.markOffline(userId);
     }
     
     public void updateUserLastSeen(Long userId) {
-        UserStatus userStatus = userStatusRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-                    return new UserStatus(user);
-                });
-        
-        userStatus.updateLastSeen();
-        userStatusRepository.save(userStatus);
+        presenceRegistry.touch(userId);
     }
     
     // Helper Methods
     
+    // Membership comes from the cache, so rejected and allowed requests alike skip the chat_room lookup
+    private void authorize(Long chatRoomId, Long userId, String deniedMessage) {
+        Boolean member = chatMembershipCache.checkMember(chatRoomId, userId);
+        if (member == null) {
+            throw new RuntimeException("Chat room not found");
+        }
+        if (!member) {
+            throw new RuntimeException(deniedMessage);
+        }
+    }
+    
+    private void cacheMembers(ChatRoom chatRoom) {
+        chatMembershipCache.put(chatRoom.getId(), chatRoom.getUser1().getId(), chatRoom.getUser2().getId());
+    }
+    
     private ChatRoomResponse toChatRoomResponse(ChatRoom chatRoom) {
+        List<Message> lastMessages = messageRepository.findLastMessagesByChatRoomIds(List.of(chatRoom.getId()));
+        return toChatRoomResponse(chatRoom, lastMessages.isEmpty() ? null : lastMessages.get(0));
+    }
+    
+    private ChatRoomResponse toChatRoomResponse(ChatRoom chatRoom, Message lastMessage) {
         ChatRoomResponse response = new ChatRoomResponse();
         response.setId(chatRoom.getId());
         response.setCreatedAt(chatRoom.getCreatedAt());
@@ -220,17 +241,15 @@ public class ChatService {
         response.setUser2(toUserSummary(chatRoom.getUser2()));
         
         // Set last message
-        List<Message> lastMessages = messageRepository.findLastMessageByChatRoomId(chatRoom.getId());
-        if (!lastMessages.isEmpty()) {
-            response.setLastMessage(toMessageSummary(lastMessages.get(0)));
+        if (lastMessage != null) {
+            response.setLastMessage(toMessageSummary(lastMessage));
         }
         
         return response;
     }
     
     private ChatRoomResponse.UserSummary toUserSummary(User user) {
-        // Temporary fix: Skip user status lookup until database is updated
-        Boolean isOnline = false; // Default to offline
+        Boolean isOnline = presenceRegistry.isOnline(user.getId());
         
         return new ChatRoomResponse.UserSummary(
                 user.getId(),
@@ -256,6 +275,7 @@ public class ChatService {
         MessageResponse response = new MessageResponse();
         response.setId(message.getId());
         response.setChatRoomId(message.getChatRoom().getId());
+        response.setSequence(message.getRoomSequence());
         response.setContent(message.getDisplayContent());
         response.setMessageType(message.getMessageType().name());
         response.setFileUrl(message.getFileUrl());
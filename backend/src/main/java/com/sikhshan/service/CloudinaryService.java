@@ -2,6 +2,8 @@ package com.sikhshan.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,6 +18,30 @@ public class CloudinaryService {
     @Autowired
     private Cloudinary cloudinary;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Upload a file and record its latency as cloudinary.upload, tagged by kind and outcome
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> upload(String kind, MultipartFile file, Map<?, ?> uploadParams) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Map<String, Object> result = cloudinary.uploader().upload(file.getBytes(), uploadParams);
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("cloudinary.upload")
+                    .description("Cloudinary upload latency")
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+    
     /**
      * Upload profile picture to Cloudinary
      * @param file The image file to upload
@@ -32,7 +58,7 @@ public class CloudinaryService {
             "access_mode", "public" // Make files publicly accessible
         );
         
-        return cloudinary.uploader().upload(file.getBytes(), uploadParams);
+        return upload("profile_picture", file, uploadParams);
     }
     
     /**
@@ -51,7 +77,7 @@ public class CloudinaryService {
             "access_mode", "public" // Make files publicly accessible
         );
         
-        return cloudinary.uploader().upload(file.getBytes(), uploadParams);
+        return upload("course_image", file, uploadParams);
     }
     
     /**
@@ -101,7 +127,7 @@ public class CloudinaryService {
             "access_mode", "public" // Make files publicly accessible
         );
         
-        return cloudinary.uploader().upload(file.getBytes(), uploadParams);
+        return upload("course_attachment", file, uploadParams);
     }
     
     /**
@@ -151,7 +177,7 @@ public class CloudinaryService {
             "access_mode", "public" // Make files publicly accessible
         );
         
-        return cloudinary.uploader().upload(file.getBytes(), uploadParams);
+        return upload("assignment_file", file, uploadParams);
     }
     
     /**
@@ -203,7 +229,7 @@ public class CloudinaryService {
             "access_mode", "public" // Make files publicly accessible
         );
         
-        return cloudinary.uploader().upload(file.getBytes(), uploadParams);
+        return upload("submission_file", file, uploadParams);
     }
     
     /**
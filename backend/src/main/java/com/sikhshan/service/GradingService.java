@@ -1,16 +1,40 @@
 package com.sikhshan.service;
 
+import com.sikhshan.event.GradeChangedEvent;
 import com.sikhshan.model.*;
 import com.sikhshan.repository.*;
+import com.sikhshan.utility.GradeCalculator;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class GradingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GradingService.class);
+
+    private static final String RESCALE_SUBMISSION_SQL =
+            "UPDATE assignment_submission SET points_earned = ?, grade = ?, letter_grade = ?, grade_point = ?, " +
+            "performance_description = ?, last_modified_at = ? WHERE id = ?";
+
     @Autowired
     private CourseGradeRepository courseGradeRepository;
 
@@ -32,6 +56,19 @@ public class GradingService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Calculate and update grades for a student in a specific course
      */
@@ -52,14 +89,8 @@ public class GradingService {
         courseGrade.setStudent(student);
         courseGrade.setCourse(course);
 
-        // Calculate assignment grades
-        calculateAssignmentGrades(courseGrade, studentId, courseId);
-
-        // Calculate quiz grades
-        calculateQuizGrades(courseGrade, studentId, courseId);
-
-        // Calculate final grade
-        calculateFinalGrade(courseGrade);
+        // Calculate assignment, quiz and final grades
+        calculateGrades(courseId, List.of(courseGrade));
 
         // Save the grade
         CourseGrade savedGrade = courseGradeRepository.save(courseGrade);
@@ -68,32 +99,110 @@ public class GradingService {
     }
 
     /**
-     * Calculate assignment grades for a student in a course
+     * Refresh one student's assignment or quiz points in the stored course grade.
+     * The first event for a student seeds the row with a full calculation.
      */
-    private void calculateAssignmentGrades(CourseGrade courseGrade, Long studentId, Long courseId) {
-        List<Assignment> assignments = assignmentRepository.findByCourseId(courseId);
-        courseGrade.setAssignmentCount(assignments.size());
+    @EventListener
+    public void onGradeChanged(GradeChangedEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> refreshGrade(event));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent first event inserted the row (unique_student_course); refresh it under its lock
+            transactionTemplate.executeWithoutResult(status -> refreshGrade(event));
+        }
+    }
 
-        double totalPoints = 0.0;
-        double earnedPoints = 0.0;
-        int gradedCount = 0;
+    private void refreshGrade(GradeChangedEvent event) {
+        Optional<CourseGrade> existing = courseGradeRepository
+                .findForUpdateByStudentIdAndCourseId(event.getStudentId(), event.getCourseId());
+        if (existing.isEmpty()) {
+            calculateCourseGrade(event.getStudentId(), event.getCourseId());
+            return;
+        }
 
-        for (Assignment assignment : assignments) {
-            totalPoints += assignment.getTotalPoints();
+        // Best points per item are read under the row lock, so resubmissions are not double counted
+        // and concurrent graders each see the other's committed change
+        CourseGrade courseGrade = existing.get();
+        List<Long> studentIds = List.of(event.getStudentId());
+        if (event.getItemType() == GradeChangedEvent.ItemType.ASSIGNMENT) {
+            double[] earned = foldBestPoints(assignmentSubmissionRepository
+                    .findBestPointsByCourseAndStudents(event.getCourseId(), studentIds))
+                    .getOrDefault(event.getStudentId(), new double[2]);
+            courseGrade.setAssignmentPointsEarned(earned[0]);
+            courseGrade.setAssignmentGradedCount((int) earned[1]);
+            courseGrade.setAssignmentPercentage(percentage(earned[0], courseGrade.getAssignmentTotalPoints()));
+        } else {
+            double[] earned = foldBestPoints(quizAttemptRepository
+                    .findBestPointsByCourseAndStudents(event.getCourseId(), studentIds))
+                    .getOrDefault(event.getStudentId(), new double[2]);
+            courseGrade.setQuizPointsEarned(earned[0]);
+            courseGrade.setQuizAttemptedCount((int) earned[1]);
+            courseGrade.setQuizPercentage(percentage(earned[0], courseGrade.getQuizTotalPoints()));
+        }
 
-            // Get student's submission for this assignment
-            Optional<AssignmentSubmission> submission = assignmentSubmissionRepository
-                    .findByAssignmentAndStudent(assignment, courseGrade.getStudent());
+        calculateFinalGrade(courseGrade);
+        courseGradeRepository.save(courseGrade);
+    }
 
-            if (submission.isPresent() && submission.get().getPointsEarned() != null) {
-                earnedPoints += submission.get().getPointsEarned();
-                gradedCount++;
-            }
+    private double percentage(double earnedPoints, double totalPoints) {
+        return totalPoints > 0 ? (earnedPoints / totalPoints) * 100.0 : 0.0;
+    }
+
+    /**
+     * Calculate assignment, quiz and final grades for a set of students in one course.
+     * Uses one totals query and one per-student aggregate query each for assignments and quizzes,
+     * independent of the number of students or items.
+     */
+    private void calculateGrades(Long courseId, List<CourseGrade> courseGrades) {
+        List<Long> studentIds = courseGrades.stream()
+                .map(grade -> grade.getStudent().getId())
+                .collect(Collectors.toList());
+
+        // (count, total points) of all assignments and quizzes in the course
+        Object[] assignmentTotals = assignmentRepository.getTotalsByCourseId(courseId).get(0);
+        Object[] quizTotals = quizRepository.getTotalsByCourseId(courseId).get(0);
+
+        // studentId -> (earned points, graded/attempted item count)
+        Map<Long, double[]> assignmentEarned = foldBestPoints(
+                assignmentSubmissionRepository.findBestPointsByCourseAndStudents(courseId, studentIds));
+        Map<Long, double[]> quizEarned = foldBestPoints(
+                quizAttemptRepository.findBestPointsByCourseAndStudents(courseId, studentIds));
+
+        for (CourseGrade courseGrade : courseGrades) {
+            Long studentId = courseGrade.getStudent().getId();
+            double[] assignment = assignmentEarned.getOrDefault(studentId, new double[2]);
+            double[] quiz = quizEarned.getOrDefault(studentId, new double[2]);
+
+            applyAssignmentGrades(courseGrade, assignmentTotals, assignment);
+            applyQuizGrades(courseGrade, quizTotals, quiz);
+            calculateFinalGrade(courseGrade);
+        }
+    }
+
+    /**
+     * Fold (studentId, itemId, bestPoints) rows into studentId -> (sum of best points, item count)
+     */
+    private Map<Long, double[]> foldBestPoints(List<Object[]> rows) {
+        Map<Long, double[]> earned = new HashMap<>();
+        for (Object[] row : rows) {
+            double[] totals = earned.computeIfAbsent((Long) row[0], id -> new double[2]);
+            totals[0] += ((Number) row[2]).doubleValue();
+            totals[1]++;
         }
+        return earned;
+    }
+
+    /**
+     * Apply assignment grades for a student from the course totals and the student's earned points
+     */
+    private void applyAssignmentGrades(CourseGrade courseGrade, Object[] totals, double[] earned) {
+        double totalPoints = ((Number) totals[1]).doubleValue();
+        double earnedPoints = earned[0];
 
+        courseGrade.setAssignmentCount(((Number) totals[0]).intValue());
         courseGrade.setAssignmentTotalPoints(totalPoints);
         courseGrade.setAssignmentPointsEarned(earnedPoints);
-        courseGrade.setAssignmentGradedCount(gradedCount);
+        courseGrade.setAssignmentGradedCount((int) earned[1]);
 
         if (totalPoints > 0) {
             courseGrade.setAssignmentPercentage((earnedPoints / totalPoints) * 100.0);
@@ -103,39 +212,16 @@ public class GradingService {
     }
 
     /**
-     * Calculate quiz grades for a student in a course
+     * Apply quiz grades for a student from the course totals and the student's best attempts
      */
-    private void calculateQuizGrades(CourseGrade courseGrade, Long studentId, Long courseId) {
-        List<Quiz> quizzes = quizRepository.findByCourseId(courseId);
-        courseGrade.setQuizCount(quizzes.size());
-
-        double totalPoints = 0.0;
-        double earnedPoints = 0.0;
-        int attemptedCount = 0;
-
-        for (Quiz quiz : quizzes) {
-            totalPoints += quiz.getTotalPoints();
-
-            // Get student's best attempt for this quiz
-            List<QuizAttempt> attempts = quizAttemptRepository.findByQuizAndStudent(quiz, courseGrade.getStudent());
-            
-            if (!attempts.isEmpty()) {
-                // Find the best attempt (highest score)
-                QuizAttempt bestAttempt = attempts.stream()
-                        .filter(attempt -> attempt.getPointsEarned() != null)
-                        .max((a, b) -> Double.compare(a.getPointsEarned(), b.getPointsEarned()))
-                        .orElse(null);
-
-                if (bestAttempt != null) {
-                    earnedPoints += bestAttempt.getPointsEarned();
-                    attemptedCount++;
-                }
-            }
-        }
+    private void applyQuizGrades(CourseGrade courseGrade, Object[] totals, double[] earned) {
+        double totalPoints = ((Number) totals[1]).doubleValue();
+        double earnedPoints = earned[0];
 
+        courseGrade.setQuizCount(((Number) totals[0]).intValue());
         courseGrade.setQuizTotalPoints(totalPoints);
         courseGrade.setQuizPointsEarned(earnedPoints);
-        courseGrade.setQuizAttemptedCount(attemptedCount);
+        courseGrade.setQuizAttemptedCount((int) earned[1]);
 
         if (totalPoints > 0) {
             courseGrade.setQuizPercentage((earnedPoints / totalPoints) * 100.0);
@@ -272,11 +358,69 @@ public class GradingService {
     /**
      * Recalculate all grades for a course (when assignments/quizzes are updated)
      */
+    @Transactional
     public void recalculateCourseGrades(Long courseId) {
         List<CourseGrade> courseGrades = courseGradeRepository.findByCourseId(courseId);
+        if (courseGrades.isEmpty()) {
+            return;
+        }
         
-        for (CourseGrade courseGrade : courseGrades) {
-            calculateCourseGrade(courseGrade.getStudent().getId(), courseId);
+        calculateGrades(courseId, courseGrades);
+        courseGradeRepository.saveAll(courseGrades);
+    }
+
+    /**
+     * Save an assignment whose total points changed, proportionally rescale its graded submissions
+     * with one JDBC batch, and refresh the course grades, all in one transaction.
+     */
+    @Transactional
+    public Assignment rescaleAssignment(Assignment assignment, int oldTotalPoints) {
+        Assignment savedAssignment = assignmentRepository.save(assignment);
+        int newTotalPoints = savedAssignment.getTotalPoints();
+        double ratio = (double) newTotalPoints / oldTotalPoints;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> graded = assignmentSubmissionRepository.findGradedPointsByAssignmentId(savedAssignment.getId());
+        List<Object[]> batchArgs = new ArrayList<>(graded.size());
+        for (Object[] row : graded) {
+            // Ensure points earned doesn't exceed new total and is not negative
+            int newPointsEarned = (int) Math.round(((Number) row[1]).intValue() * ratio);
+            newPointsEarned = Math.max(0, Math.min(newPointsEarned, newTotalPoints));
+
+            double percentage = GradeCalculator.calculatePercentage(newPointsEarned, newTotalPoints);
+            batchArgs.add(new Object[] {
+                    newPointsEarned,
+                    percentage,
+                    GradeCalculator.calculateLetterGrade(percentage),
+                    GradeCalculator.calculateGradePoint(percentage),
+                    GradeCalculator.getPerformanceDescription(percentage),
+                    now,
+                    row[0]
+            });
+        }
+
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESCALE_SUBMISSION_SQL, batchArgs);
         }
+        recalculateCourseGrades(savedAssignment.getCourse().getId());
+
+        logger.debug("Proportionally adjusted {} submissions for assignment {} (old total: {}, new total: {})",
+                batchArgs.size(), savedAssignment.getId(), oldTotalPoints, newTotalPoints);
+        return savedAssignment;
+    }
+
+    /**
+     * Recalculate the grades of one chunk of students in a course, in its own transaction
+     */
+    @Transactional
+    public int recalculateCourseGrades(Long courseId, Collection<Long> studentIds) {
+        List<CourseGrade> courseGrades = courseGradeRepository.findByCourseIdAndStudentIds(courseId, studentIds);
+        if (courseGrades.isEmpty()) {
+            return 0;
+        }
+
+        calculateGrades(courseId, courseGrades);
+        courseGradeRepository.saveAll(courseGrades);
+        return courseGrades.size();
     }
 } 
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.sikhshan.service;
 
 import com.sikhshan.config.JwtProperties;
+import com.sikhshan.dto.JwtClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -19,10 +22,17 @@ public class JwtService {
 
     private SecretKey secretKey;
 
+    // Immutable and thread-safe, so one instance is shared by all requests
+    private JwtParser jwtParser;
+
+    private VerifiedTokenCache tokenCache;
+
     @PostConstruct
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecret());
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        this.tokenCache = new VerifiedTokenCache(jwtProperties.getCacheMaxSize(), jwtProperties.getCacheTtlMs());
     }
 
     public String generateToken(String subject, String role, Long id) {
@@ -36,9 +46,39 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verify the token signature and expiry once and return all claims the application uses.
+     * Tokens seen recently are answered from the verified-token cache.
+     */
+    public JwtClaims parseClaims(String token) {
+        String digest = tokenCache.digest(token);
+        JwtClaims cached = tokenCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtClaims verified = verify(token);
+        tokenCache.put(digest, verified);
+        return verified;
+    }
+
+    private JwtClaims verify(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        return new JwtClaims(
+                claims.get("id", Long.class),
+                claims.get("role", String.class),
+                claims.getSubject(),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    public VerifiedTokenCache getTokenCache() {
+        return tokenCache;
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -46,25 +86,14 @@ public class JwtService {
     }
 
     public String extractEmail(String token) {
-        return Jwts.parser().verifyWith(secretKey).build()
-                .parseSignedClaims(token).getPayload().getSubject();
+        return parseClaims(token).getEmail();
     }
     
     public String extractRole(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("role", String.class);
+        return parseClaims(token).getRole();
     }
 
     public Long extractUserId(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("id", Long.class);
+        return parseClaims(token).getUserId();
     }
 }
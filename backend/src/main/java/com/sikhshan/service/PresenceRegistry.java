@@ -0,0 +1,198 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.ChatProperties;
+import com.sikhshan.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory source of truth for who is online.
+ *
+ * Each user has a count of open WebSocket sessions (a user with two tabs stays online until both
+ * close) and a last-seen time. Connect, disconnect and lookups only touch this map; changed users
+ * are written to user_status in batches on the chat.presence.flush-interval-ms schedule.
+ * A user id is checked against the user table the first time it is seen, so ids from clients
+ * cannot grow the map beyond the real users.
+ */
+@Service
+public class PresenceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    // Only users that exist are written; the STOMP user id comes from a client header
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_status (user_id, is_online, last_seen) " +
+            "SELECT id, ?, ? FROM `user` WHERE id = ? " +
+            "ON DUPLICATE KEY UPDATE is_online = VALUES(is_online), last_seen = VALUES(last_seen)";
+
+    private static final String RESET_SQL = "UPDATE user_status SET is_online = FALSE WHERE is_online = TRUE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChatProperties chatProperties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Presence> presences = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private static final class Presence {
+        private final AtomicInteger sessions = new AtomicInteger();
+        private volatile long lastSeen = System.currentTimeMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        // Nobody is connected to a freshly started server
+        try {
+            int reset = jdbcTemplate.update(RESET_SQL);
+            if (reset > 0) {
+                logger.info("Marked {} users offline after restart", reset);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not reset user_status on startup: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    public void connect(Long userId) {
+        Presence presence = presenceOf(userId);
+        presence.sessions.incrementAndGet();
+        presence.lastSeen = System.currentTimeMillis();
+        dirty.add(userId);
+    }
+
+    public void disconnect(Long userId) {
+        Presence presence = presences.get(userId);
+        if (presence == null) {
+            return;
+        }
+        presence.sessions.updateAndGet(count -> Math.max(0, count - 1));
+        presence.lastSeen = System.currentTimeMillis();
+        dirty.add(userId);
+    }
+
+    /**
+     * Mark a user online without a WebSocket session (REST clients); a no-op if already online
+     */
+    public void markOnline(Long userId) {
+        Presence presence = presenceOf(userId);
+        presence.sessions.updateAndGet(count -> Math.max(1, count));
+        presence.lastSeen = System.currentTimeMillis();
+        dirty.add(userId);
+    }
+
+    /**
+     * Force a user offline regardless of how many sessions they have open
+     */
+    public void markOffline(Long userId) {
+        Presence presence = presenceOf(userId);
+        presence.sessions.set(0);
+        presence.lastSeen = System.currentTimeMillis();
+        dirty.add(userId);
+    }
+
+    public void touch(Long userId) {
+        presenceOf(userId).lastSeen = System.currentTimeMillis();
+        dirty.add(userId);
+    }
+
+    private Presence presenceOf(Long userId) {
+        Presence presence = presences.get(userId);
+        if (presence != null) {
+            return presence;
+        }
+        if (userId == null || !userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return presences.computeIfAbsent(userId, id -> new Presence());
+    }
+
+    public boolean isOnline(Long userId) {
+        Presence presence = userId != null ? presences.get(userId) : null;
+        return presence != null && presence.sessions.get() > 0;
+    }
+
+    /**
+     * Last connect, disconnect or activity seen since startup, or null if none
+     */
+    public LocalDateTime getLastSeen(Long userId) {
+        Presence presence = userId != null ? presences.get(userId) : null;
+        return presence != null ? toLocalDateTime(presence.lastSeen) : null;
+    }
+
+    public int getOnlineCount() {
+        int online = 0;
+        for (Presence presence : presences.values()) {
+            if (presence.sessions.get() > 0) {
+                online++;
+            }
+        }
+        return online;
+    }
+
+    /**
+     * Write changed users to user_status
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.flush-interval-ms:5000}")
+    public void flush() {
+        List<Long> pending = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            pending.add(it.next());
+            it.remove();
+        }
+        int batchSize = Math.max(1, chatProperties.getPresence().getFlushBatchSize());
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            write(pending.subList(from, Math.min(from + batchSize, pending.size())));
+        }
+    }
+
+    private void write(List<Long> userIds) {
+        List<Object[]> batchArgs = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            // Read the state at write time; later changes mark the user dirty again
+            Presence presence = presences.get(userId);
+            if (presence != null) {
+                batchArgs.add(new Object[] {
+                        presence.sessions.get() > 0, Timestamp.valueOf(toLocalDateTime(presence.lastSeen)), userId
+                });
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+        } catch (Exception e) {
+            // Retry on the next flush
+            dirty.addAll(userIds);
+            logger.error("Failed to flush presence of {} users: {}", userIds.size(), e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
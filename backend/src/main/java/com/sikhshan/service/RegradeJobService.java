@@ -0,0 +1,286 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.GradingProperties;
+import com.sikhshan.dto.RegradeJobResponse;
+import com.sikhshan.event.CourseItemsChangedEvent;
+import com.sikhshan.repository.CourseGradeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs course-wide regrades in the background.
+ *
+ * The students of a course are split into chunks; each chunk is recalculated and
+ * saved in its own transaction on a fixed-size worker pool, so a large course does not
+ * hold an HTTP thread or one long transaction. The pool's queue is bounded; a job whose
+ * chunks do not fit is rejected rather than queued behind an ever-growing backlog.
+ *
+ * Changes to a course's assignments or quizzes are applied to its stored grades by a regrade
+ * started once the change has committed.
+ */
+@Service
+public class RegradeJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegradeJobService.class);
+
+    @Autowired
+    private GradingService gradingService;
+
+    @Autowired
+    private CourseGradeRepository courseGradeRepository;
+
+    @Autowired
+    private GradingProperties gradingProperties;
+
+    private final Map<String, RegradeJob> jobs = new ConcurrentHashMap<>();
+    // courseId -> the course's unfinished job
+    private final Map<Long, RegradeJob> runningJobs = new ConcurrentHashMap<>();
+    // Courses whose items changed while their regrade was running; regraded again when it finishes
+    private final Set<Long> staleCourses = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        GradingProperties.Regrade config = gradingProperties.getRegrade();
+        int threads = Math.max(1, config.getThreads());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())), runnable -> {
+            Thread thread = new Thread(runnable, "regrade-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Start a regrade of every stored grade in the course. If a regrade of the same
+     * course is still running, that job is returned instead of starting another one.
+     *
+     * @throws RejectedExecutionException if the worker queue has no room for the job
+     */
+    public RegradeJobResponse submit(Long courseId) {
+        evictFinishedJobs();
+
+        RegradeJob running = runningJobs.get(courseId);
+        if (running != null && !running.isFinished()) {
+            return running.toResponse();
+        }
+
+        // Load and size the job outside the map; only its registration is atomic
+        List<Long> studentIds = courseGradeRepository.findStudentIdsByCourseId(courseId);
+        int chunkSize = Math.max(1, gradingProperties.getRegrade().getChunkSize());
+        int totalChunks = (studentIds.size() + chunkSize - 1) / chunkSize;
+        if (totalChunks > executor.getQueue().remainingCapacity()) {
+            throw new RejectedExecutionException("Regrade queue is full, try again later");
+        }
+        RegradeJob job = new RegradeJob(UUID.randomUUID().toString(), courseId, studentIds.size(), totalChunks);
+
+        // At most one unfinished job per course, even with concurrent submits
+        RegradeJob existing;
+        while ((existing = runningJobs.putIfAbsent(courseId, job)) != null) {
+            if (!existing.isFinished()) {
+                return existing.toResponse();
+            }
+            // Finished but not yet removed; a stale entry must not block this regrade
+            runningJobs.remove(courseId, existing);
+        }
+
+        jobs.put(job.jobId, job);
+        try {
+            startJob(job, studentIds, chunkSize);
+        } catch (RejectedExecutionException e) {
+            runningJobs.remove(courseId, job);
+            jobs.remove(job.jobId);
+            throw e;
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Regrade the course after its assignments or quizzes changed. A regrade already running may
+     * have read the old totals, so the course is regraded again once it finishes.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseItemsChanged(CourseItemsChangedEvent event) {
+        Long courseId = event.getCourseId();
+        RegradeJob running = runningJobs.get(courseId);
+        if (running != null && !running.isFinished()) {
+            staleCourses.add(courseId);
+        }
+        refresh(courseId);
+    }
+
+    private void refresh(Long courseId) {
+        try {
+            submit(courseId);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Could not regrade course {} after its items changed: {}", courseId, e.getMessage());
+        }
+    }
+
+    /**
+     * Queue the job's chunks on the worker pool
+     *
+     * @throws RejectedExecutionException if not even the first chunk could be queued
+     */
+    private void startJob(RegradeJob job, List<Long> studentIds, int chunkSize) {
+        if (job.totalChunks == 0) {
+            job.finish();
+            runningJobs.remove(job.courseId, job);
+            return;
+        }
+
+        for (int from = 0; from < studentIds.size(); from += chunkSize) {
+            List<Long> chunk = studentIds.subList(from, Math.min(from + chunkSize, studentIds.size()));
+            try {
+                executor.execute(() -> runChunk(job, chunk));
+            } catch (RejectedExecutionException e) {
+                if (from == 0) {
+                    throw e;
+                }
+                // Another course's job took the remaining room; the chunks not queued fail
+                job.error = "Regrade queue is full";
+                job.failedChunks.addAndGet(job.totalChunks - (from / chunkSize));
+                if (job.completedChunks.get() + job.failedChunks.get() == job.totalChunks) {
+                    job.finish();
+                    runningJobs.remove(job.courseId, job);
+                }
+                break;
+            }
+        }
+        logger.info("Regrade job {} started for course {} ({} students in {} chunks)",
+                job.jobId, job.courseId, studentIds.size(), job.totalChunks);
+    }
+
+    public RegradeJobResponse getJob(String jobId) {
+        RegradeJob job = jobs.get(jobId);
+        return job != null ? job.toResponse() : null;
+    }
+
+    private void runChunk(RegradeJob job, List<Long> studentIds) {
+        job.markRunning();
+        try {
+            gradingService.recalculateCourseGrades(job.courseId, studentIds);
+            job.processedStudents.addAndGet(studentIds.size());
+            job.completedChunks.incrementAndGet();
+        } catch (Exception e) {
+            job.failedChunks.incrementAndGet();
+            job.error = e.getMessage();
+            logger.error("Regrade job {} failed a chunk of {} students: {}", job.jobId, studentIds.size(), e.getMessage());
+        }
+
+        if (job.completedChunks.get() + job.failedChunks.get() == job.totalChunks) {
+            job.finish();
+            runningJobs.remove(job.courseId, job);
+            logger.info("Regrade job {} finished: {} students in {} ms", job.jobId,
+                    job.processedStudents.get(), job.elapsedMs());
+            if (staleCourses.remove(job.courseId)) {
+                refresh(job.courseId);
+            }
+        }
+    }
+
+    private void evictFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - gradingProperties.getRegrade().getJobRetentionMs();
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAtMillis < cutoff);
+    }
+
+    /**
+     * Progress of a single regrade job; counters are updated by the worker threads
+     */
+    private static class RegradeJob {
+        private final String jobId;
+        private final Long courseId;
+        private final int totalStudents;
+        private final int totalChunks;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger processedStudents = new AtomicInteger();
+        private final AtomicInteger completedChunks = new AtomicInteger();
+        private final AtomicInteger failedChunks = new AtomicInteger();
+        private volatile String status = "QUEUED";
+        private volatile String error;
+        private volatile long endNanos;
+        private volatile long finishedAtMillis;
+        private volatile LocalDateTime finishedAt;
+
+        RegradeJob(String jobId, Long courseId, int totalStudents, int totalChunks) {
+            this.jobId = jobId;
+            this.courseId = courseId;
+            this.totalStudents = totalStudents;
+            this.totalChunks = totalChunks;
+        }
+
+        void markRunning() {
+            if ("QUEUED".equals(status)) {
+                status = "RUNNING";
+            }
+        }
+
+        synchronized void finish() {
+            if (isFinished()) {
+                return;
+            }
+            endNanos = System.nanoTime();
+            finishedAtMillis = System.currentTimeMillis();
+            finishedAt = LocalDateTime.now();
+            status = failedChunks.get() > 0 ? "FAILED" : "COMPLETED";
+        }
+
+        boolean isFinished() {
+            return "COMPLETED".equals(status) || "FAILED".equals(status);
+        }
+
+        long elapsedMs() {
+            long end = isFinished() ? endNanos : System.nanoTime();
+            return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+        }
+
+        RegradeJobResponse toResponse() {
+            long elapsedMs = elapsedMs();
+            RegradeJobResponse response = new RegradeJobResponse();
+            response.setJobId(jobId);
+            response.setCourseId(courseId);
+            response.setStatus(status);
+            response.setTotalStudents(totalStudents);
+            response.setProcessedStudents(processedStudents.get());
+            response.setTotalChunks(totalChunks);
+            response.setCompletedChunks(completedChunks.get());
+            response.setFailedChunks(failedChunks.get());
+            response.setElapsedMs(elapsedMs);
+            response.setStudentsPerSecond(elapsedMs > 0 ? processedStudents.get() * 1000.0 / elapsedMs : 0.0);
+            response.setSubmittedAt(submittedAt);
+            response.setFinishedAt(finishedAt);
+            response.setError(error);
+            return response;
+        }
+    }
+}
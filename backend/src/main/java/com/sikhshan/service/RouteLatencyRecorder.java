@@ -0,0 +1,184 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.LatencyProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory request latency per route, fed by the request metrics interceptor.
+ *
+ * Each route keeps a ring of its most recent requests. Recording is one atomic increment and one
+ * array store with no locks; percentiles and the slowest requests are computed from a snapshot of
+ * the ring when they are read, so slow-request questions never touch the audit table.
+ */
+@Service
+public class RouteLatencyRecorder {
+
+    private static final String OVERFLOW_ROUTE = "OTHER";
+
+    @Autowired
+    private LatencyProperties latencyProperties;
+
+    private final Map<String, Reservoir> routes = new ConcurrentHashMap<>();
+
+    /**
+     * A single recorded request
+     */
+    public static class Sample {
+        private final long timestamp;
+        private final long durationMicros;
+        private final String uri;
+        private final int status;
+
+        Sample(long timestamp, long durationMicros, String uri, int status) {
+            this.timestamp = timestamp;
+            this.durationMicros = durationMicros;
+            this.uri = uri;
+            this.status = status;
+        }
+
+        public long getDurationMicros() {
+            return durationMicros;
+        }
+
+        Map<String, Object> toMap(String route) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            if (route != null) {
+                map.put("route", route);
+            }
+            map.put("uri", uri);
+            map.put("status", status);
+            map.put("durationMs", durationMicros / 1000.0);
+            map.put("timestamp", Instant.ofEpochMilli(timestamp).toString());
+            return map;
+        }
+    }
+
+    private static final class Reservoir {
+        private final AtomicReferenceArray<Sample> ring;
+        private final AtomicLong count = new AtomicLong();
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+        Reservoir(int size) {
+            ring = new AtomicReferenceArray<>(size);
+        }
+
+        void record(Sample sample) {
+            int slot = (int) (count.getAndIncrement() % ring.length());
+            ring.set(slot, sample);
+            maxMicros.accumulate(sample.durationMicros);
+        }
+
+        List<Sample> snapshot() {
+            List<Sample> samples = new ArrayList<>(ring.length());
+            for (int i = 0; i < ring.length(); i++) {
+                Sample sample = ring.get(i);
+                if (sample != null) {
+                    samples.add(sample);
+                }
+            }
+            return samples;
+        }
+    }
+
+    /**
+     * Record one completed request. Routes beyond latency.max-routes share a single overflow entry.
+     */
+    public void record(String route, String uri, int status, long durationNanos) {
+        Reservoir reservoir = routes.get(route);
+        if (reservoir == null) {
+            String key = routes.size() < latencyProperties.getMaxRoutes() ? route : OVERFLOW_ROUTE;
+            reservoir = routes.computeIfAbsent(key, k -> new Reservoir(Math.max(1, latencyProperties.getReservoirSize())));
+        }
+        reservoir.record(new Sample(System.currentTimeMillis(), durationNanos / 1000, uri, status));
+    }
+
+    /**
+     * Latency summary for every route, slowest p99 first, each with its top slowest recent requests
+     */
+    public List<Map<String, Object>> getRouteSummaries(int top) {
+        return routes.entrySet().stream()
+            .map(entry -> summarize(entry.getKey(), entry.getValue(), top))
+            .sorted(Comparator.comparingDouble((Map<String, Object> summary) -> (Double) summary.get("p99Ms")).reversed())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Latency summary for one route, or null if it has not been seen
+     */
+    public Map<String, Object> getRouteSummary(String route, int top) {
+        Reservoir reservoir = routes.get(route);
+        return reservoir != null ? summarize(route, reservoir, top) : null;
+    }
+
+    /**
+     * Recent requests across all routes slower than the threshold, slowest first
+     */
+    public List<Map<String, Object>> getSlowRequests(long thresholdMs, int limit) {
+        long thresholdMicros = thresholdMs * 1000;
+        List<Map.Entry<String, Sample>> slow = new ArrayList<>();
+        for (Map.Entry<String, Reservoir> entry : routes.entrySet()) {
+            for (Sample sample : entry.getValue().snapshot()) {
+                if (sample.durationMicros > thresholdMicros) {
+                    slow.add(Map.entry(entry.getKey(), sample));
+                }
+            }
+        }
+        return slow.stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, Sample> e) -> e.getValue().durationMicros).reversed())
+            .limit(limit)
+            .map(e -> e.getValue().toMap(e.getKey()))
+            .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    private Map<String, Object> summarize(String route, Reservoir reservoir, int top) {
+        List<Sample> samples = reservoir.snapshot();
+        long[] durations = new long[samples.size()];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = samples.get(i).durationMicros;
+        }
+        Arrays.sort(durations);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("route", route);
+        summary.put("count", reservoir.count.get());
+        summary.put("window", durations.length);
+        summary.put("p50Ms", percentile(durations, 0.50));
+        summary.put("p95Ms", percentile(durations, 0.95));
+        summary.put("p99Ms", percentile(durations, 0.99));
+        summary.put("windowMaxMs", durations.length > 0 ? durations[durations.length - 1] / 1000.0 : 0.0);
+        summary.put("maxMs", reservoir.maxMicros.get() / 1000.0);
+        summary.put("slowest", samples.stream()
+            .sorted(Comparator.comparingLong(Sample::getDurationMicros).reversed())
+            .limit(top)
+            .map(sample -> sample.toMap(null))
+            .collect(Collectors.toList()));
+        return summary;
+    }
+
+    // Nearest-rank percentile over sorted durations, in milliseconds
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+}
@@ -0,0 +1,188 @@
+package com.sikhshan.service;
+
+import com.sikhshan.repository.ChatRoomMemberRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unread message counters per user and chat room.
+ *
+ * A user's counters are loaded from chat_room_member on first use and then kept in memory:
+ * sending a message increments the recipient's counter, a message that could not be stored
+ * decrements it again and marking a room read resets it, so
+ * unread counts are answered without counting messages. Changed counters are written back in
+ * batches on the chat.unread.flush-interval-ms schedule.
+ */
+@Service
+public class UnreadCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO chat_room_member (chat_room_id, user_id, unread_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count)";
+
+    private static final String DELETE_ROOM_SQL = "DELETE FROM chat_room_member WHERE chat_room_id = ?";
+
+    @Autowired
+    private ChatRoomMemberRepository chatRoomMemberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // userId -> chatRoomId -> unread count
+    private final Map<Long, Map<Long, AtomicInteger>> counters = new ConcurrentHashMap<>();
+    private final Set<MemberKey> dirty = ConcurrentHashMap.newKeySet();
+
+    public void increment(Long chatRoomId, Long userId) {
+        counter(chatRoomId, userId).incrementAndGet();
+        dirty.add(new MemberKey(chatRoomId, userId));
+    }
+
+    /**
+     * Take back an increment for a message that was never stored; counters do not go below zero
+     */
+    public void decrement(Long chatRoomId, Long userId) {
+        if (counter(chatRoomId, userId).getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            dirty.add(new MemberKey(chatRoomId, userId));
+        }
+    }
+
+    public void reset(Long chatRoomId, Long userId) {
+        if (counter(chatRoomId, userId).getAndSet(0) != 0) {
+            dirty.add(new MemberKey(chatRoomId, userId));
+        }
+    }
+
+    public long getUnreadCount(Long chatRoomId, Long userId) {
+        AtomicInteger count = countersFor(userId).get(chatRoomId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Unread counts of every chat room of the user that has unread messages
+     */
+    public Map<Long, Long> getUnreadCounts(Long userId) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Map.Entry<Long, AtomicInteger> entry : countersFor(userId).entrySet()) {
+            int count = entry.getValue().get();
+            if (count > 0) {
+                counts.put(entry.getKey(), (long) count);
+            }
+        }
+        return counts;
+    }
+
+    private AtomicInteger counter(Long chatRoomId, Long userId) {
+        return countersFor(userId).computeIfAbsent(chatRoomId, id -> new AtomicInteger());
+    }
+
+    private Map<Long, AtomicInteger> countersFor(Long userId) {
+        return counters.computeIfAbsent(userId, this::load);
+    }
+
+    private Map<Long, AtomicInteger> load(Long userId) {
+        Map<Long, AtomicInteger> userCounters = new ConcurrentHashMap<>();
+        for (Object[] row : chatRoomMemberRepository.findUnreadCountsByUserId(userId)) {
+            userCounters.put((Long) row[0], new AtomicInteger(((Number) row[1]).intValue()));
+        }
+        return userCounters;
+    }
+
+    /**
+     * Forget a deleted user's counters and every counter of their chat rooms, which are deleted
+     * with them, and remove the rooms' chat_room_member rows (the table has no foreign keys)
+     */
+    public void invalidateUser(Long userId, Collection<Long> chatRoomIds) {
+        Set<Long> rooms = new HashSet<>(chatRoomIds);
+        counters.remove(userId);
+        for (Map<Long, AtomicInteger> userCounters : counters.values()) {
+            userCounters.keySet().removeAll(rooms);
+        }
+        dirty.removeIf(key -> key.userId.equals(userId) || rooms.contains(key.chatRoomId));
+
+        List<Object[]> batchArgs = new ArrayList<>(rooms.size());
+        for (Long chatRoomId : rooms) {
+            batchArgs.add(new Object[] { chatRoomId });
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ROOM_SQL, batchArgs);
+        }
+    }
+
+    /**
+     * Write changed counters to chat_room_member
+     */
+    @Scheduled(fixedDelayString = "${chat.unread.flush-interval-ms:2000}")
+    public void flush() {
+        List<MemberKey> pending = new ArrayList<>();
+        for (Iterator<MemberKey> it = dirty.iterator(); it.hasNext(); ) {
+            pending.add(it.next());
+            it.remove();
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(pending.size());
+        for (MemberKey key : pending) {
+            // Write the current value; changes after this read mark the counter dirty again
+            batchArgs.add(new Object[] { key.chatRoomId, key.userId, getUnreadCount(key.chatRoomId, key.userId) });
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+        } catch (Exception e) {
+            // Retry on the next flush
+            dirty.addAll(pending);
+            logger.error("Failed to write {} unread counters: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    private static final class MemberKey {
+        private final Long chatRoomId;
+        private final Long userId;
+
+        MemberKey(Long chatRoomId, Long userId) {
+            this.chatRoomId = chatRoomId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MemberKey)) {
+                return false;
+            }
+            MemberKey other = (MemberKey) o;
+            return chatRoomId.equals(other.chatRoomId) && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * chatRoomId.hashCode() + userId.hashCode();
+        }
+    }
+}
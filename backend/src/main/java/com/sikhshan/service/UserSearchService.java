@@ -4,16 +4,15 @@ import com.sikhshan.dto.UserSearchRequest;
 import com.sikhshan.dto.UserSearchResponse;
 import com.sikhshan.model.Enrollment;
 import com.sikhshan.model.User;
-import com.sikhshan.model.UserStatus;
 import com.sikhshan.repository.EnrollmentRepository;
 import com.sikhshan.repository.UserRepository;
-import com.sikhshan.repository.UserStatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Set;
@@ -26,7 +25,7 @@ public class UserSearchService {
     private UserRepository userRepository;
     
     @Autowired
-    private UserStatusRepository userStatusRepository;
+    private PresenceRegistry presenceRegistry;
     
     @Autowired
     private EnrollmentRepository enrollmentRepository;
@@ -130,9 +129,9 @@ public class UserSearchService {
     }
     
     private UserSearchResponse.UserInfo toUserInfo(User user) {
-        // Temporary fix: Skip user status lookup until database is updated
-        Boolean isOnline = false; // Default to offline
-        String lastSeen = null;
+        Boolean isOnline = presenceRegistry.isOnline(user.getId());
+        LocalDateTime seen = presenceRegistry.getLastSeen(user.getId());
+        String lastSeen = seen != null ? seen.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
         
         UserSearchResponse.UserInfo userInfo = new UserSearchResponse.UserInfo(
                 user.getId(),
@@ -0,0 +1,45 @@
+-- Audit Log Rollups Migration Script
+-- Creates the per-minute / per-day counter table behind /api/audit-logs/statistics and
+-- backfills it from the existing audit_logs rows. The audit writer keeps it current afterwards.
+
+CREATE TABLE IF NOT EXISTS audit_log_rollup (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    granularity VARCHAR(10) NOT NULL,       -- MINUTE, DAY
+    bucket_start DATETIME(6) NOT NULL,
+    dimension VARCHAR(20) NOT NULL,         -- TOTAL, ACTION, STATUS, USER, RESOURCE_TYPE
+    dimension_value VARCHAR(255) NOT NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    
+    CONSTRAINT uk_audit_log_rollup_bucket UNIQUE (granularity, bucket_start, dimension, dimension_value)
+);
+
+-- Start from empty counters so the backfill can be re-run
+DELETE FROM audit_log_rollup;
+
+-- Day buckets for every dimension
+INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'DAY', DATE(timestamp), 'TOTAL', 'TOTAL', COUNT(*) FROM audit_logs GROUP BY DATE(timestamp);
+
+INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'DAY', DATE(timestamp), 'ACTION', action, COUNT(*) FROM audit_logs GROUP BY DATE(timestamp), action;
+
+INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'DAY', DATE(timestamp), 'STATUS', status, COUNT(*) FROM audit_logs GROUP BY DATE(timestamp), status;
+
+INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'DAY', DATE(timestamp), 'USER', username, COUNT(*) FROM audit_logs GROUP BY DATE(timestamp), username;
+
+INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'DAY', DATE(timestamp), 'RESOURCE_TYPE', resource_type, COUNT(*) FROM audit_logs
+WHERE resource_type IS NOT NULL GROUP BY DATE(timestamp), resource_type;
+
+-- Minute buckets for the last 48 hours (totals and statuses only)
+INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'MINUTE', DATE_FORMAT(timestamp, '%Y-%m-%d %H:%i:00'), 'TOTAL', 'TOTAL', COUNT(*) FROM audit_logs
+WHERE timestamp >= DATE_SUB(NOW(), INTERVAL 48 HOUR)
+GROUP BY DATE_FORMAT(timestamp, '%Y-%m-%d %H:%i:00');
+
+INSERT INTO audit_log_rollup (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'MINUTE', DATE_FORMAT(timestamp, '%Y-%m-%d %H:%i:00'), 'STATUS', status, COUNT(*) FROM audit_logs
+WHERE timestamp >= DATE_SUB(NOW(), INTERVAL 48 HOUR)
+GROUP BY DATE_FORMAT(timestamp, '%Y-%m-%d %H:%i:00'), status;
@@ -0,0 +1,26 @@
+-- Audit Log Search Migration Script
+-- Creates the full-text search table behind /api/audit-logs/search and backfills it from
+-- audit_logs. The audit writer copies new rows across after every batch (AuditSearchService).
+--
+-- The searchable columns live in their own table because MySQL does not allow FULLTEXT
+-- indexes on partitioned tables (see audit-logs-partitioning-migration.sql).
+
+CREATE TABLE IF NOT EXISTS audit_log_search (
+    audit_log_id BIGINT PRIMARY KEY,
+    timestamp DATETIME(6) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    details TEXT,
+    request_url TEXT,
+    
+    INDEX idx_audit_log_search_timestamp (timestamp),
+    FULLTEXT INDEX ft_audit_log_search (details, username, request_url)
+);
+
+-- Backfill existing logs; safe to re-run
+INSERT IGNORE INTO audit_log_search (audit_log_id, timestamp, username, details, request_url)
+SELECT id, timestamp, username, details, request_url FROM audit_logs;
+
+-- Ranked search check
+-- SELECT audit_log_id, MATCH(details, username, request_url) AGAINST ('login failed') AS score
+-- FROM audit_log_search WHERE MATCH(details, username, request_url) AGAINST ('login failed')
+-- ORDER BY score DESC LIMIT 20;
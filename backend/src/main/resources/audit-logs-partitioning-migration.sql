@@ -0,0 +1,119 @@
+-- Audit Logs Partitioning Migration Script
+-- Rebuilds audit_logs as a table range-partitioned by month on timestamp.
+--
+-- * Queries with a timestamp filter only read the partitions covering that range.
+-- * Retention drops whole monthly partitions (a metadata operation) instead of deleting rows;
+--   the application creates upcoming partitions and drops expired ones (AuditPartitionService).
+--
+-- MySQL requires the partitioning column in every unique key, so the primary key becomes
+-- (id, timestamp), and partitioned InnoDB tables cannot have foreign keys, so user_id is
+-- kept as a plain indexed column.
+--
+-- Run during a quiet period: rows written between the copy and the swap are copied by the
+-- final INSERT ... SELECT before the rename.
+
+-- Create the partitioned table with one partition per month from the oldest log up to
+-- three months ahead, plus a catch-all partition for anything later
+DROP PROCEDURE IF EXISTS CreatePartitionedAuditLogs;
+
+DELIMITER //
+CREATE PROCEDURE CreatePartitionedAuditLogs(IN months_ahead INT)
+BEGIN
+    DECLARE month_start DATE;
+    DECLARE last_month DATE;
+    DECLARE partitions TEXT DEFAULT '';
+
+    SELECT DATE_FORMAT(COALESCE(MIN(timestamp), NOW()), '%Y-%m-01') INTO month_start FROM audit_logs;
+    SET last_month = DATE_ADD(DATE_FORMAT(NOW(), '%Y-%m-01'), INTERVAL months_ahead MONTH);
+
+    WHILE month_start <= last_month DO
+        SET partitions = CONCAT(partitions,
+            'PARTITION p_', DATE_FORMAT(month_start, '%Y%m'),
+            ' VALUES LESS THAN (''', DATE_ADD(month_start, INTERVAL 1 MONTH), ' 00:00:00''), ');
+        SET month_start = DATE_ADD(month_start, INTERVAL 1 MONTH);
+    END WHILE;
+
+    SET @create_sql = CONCAT(
+        'CREATE TABLE audit_logs_partitioned (',
+        '  id BIGINT NOT NULL AUTO_INCREMENT,',
+        '  timestamp DATETIME(6) NOT NULL,',
+        '  user_id BIGINT,',
+        '  username VARCHAR(255) NOT NULL,',
+        '  action VARCHAR(100) NOT NULL,',
+        '  details TEXT,',
+        '  status VARCHAR(20) NOT NULL,',
+        '  ip_address VARCHAR(45),',
+        '  user_agent TEXT,',
+        '  resource_type VARCHAR(50),',
+        '  resource_id BIGINT,',
+        '  old_values TEXT,',
+        '  new_values TEXT,',
+        '  session_id VARCHAR(255),',
+        '  request_method VARCHAR(10),',
+        '  request_url TEXT,',
+        '  response_status INT,',
+        '  execution_time BIGINT,',
+        '  error_message TEXT,',
+        '  PRIMARY KEY (id, timestamp),',
+        '  INDEX idx_audit_logs_timestamp (timestamp),',
+        '  INDEX idx_audit_logs_user_id (user_id),',
+        '  INDEX idx_audit_logs_username (username),',
+        '  INDEX idx_audit_logs_action (action),',
+        '  INDEX idx_audit_logs_status (status),',
+        '  INDEX idx_audit_logs_ip_address (ip_address),',
+        '  INDEX idx_audit_logs_resource_type (resource_type),',
+        '  INDEX idx_audit_logs_resource_id (resource_id),',
+        '  INDEX idx_audit_logs_session_id (session_id),',
+        '  INDEX idx_audit_logs_response_status (response_status),',
+        '  INDEX idx_audit_logs_execution_time (execution_time),',
+        '  INDEX idx_audit_logs_user_timestamp (user_id, timestamp),',
+        '  INDEX idx_audit_logs_action_timestamp (action, timestamp),',
+        '  INDEX idx_audit_logs_status_timestamp (status, timestamp),',
+        '  INDEX idx_audit_logs_resource_timestamp (resource_type, resource_id, timestamp)',
+        ') COMMENT = ''System audit logs for tracking user actions and system events'' ',
+        'PARTITION BY RANGE COLUMNS(timestamp) (',
+        partitions,
+        'PARTITION p_max VALUES LESS THAN (MAXVALUE))'
+    );
+
+    PREPARE stmt FROM @create_sql;
+    EXECUTE stmt;
+    DEALLOCATE PREPARE stmt;
+END //
+DELIMITER ;
+
+DROP TABLE IF EXISTS audit_logs_partitioned;
+CALL CreatePartitionedAuditLogs(3);
+DROP PROCEDURE CreatePartitionedAuditLogs;
+
+-- Copy existing logs, keeping their ids
+INSERT INTO audit_logs_partitioned
+SELECT id, timestamp, user_id, username, action, details, status, ip_address, user_agent,
+       resource_type, resource_id, old_values, new_values, session_id, request_method,
+       request_url, response_status, execution_time, error_message
+FROM audit_logs;
+
+-- Catch rows written while the copy ran, then swap the tables atomically
+INSERT INTO audit_logs_partitioned
+SELECT id, timestamp, user_id, username, action, details, status, ip_address, user_agent,
+       resource_type, resource_id, old_values, new_values, session_id, request_method,
+       request_url, response_status, execution_time, error_message
+FROM audit_logs
+WHERE id > (SELECT COALESCE(MAX(id), 0) FROM audit_logs_partitioned);
+
+RENAME TABLE audit_logs TO audit_logs_unpartitioned, audit_logs_partitioned TO audit_logs;
+
+-- Check the partition layout
+SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+FROM information_schema.PARTITIONS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs'
+ORDER BY PARTITION_ORDINAL_POSITION;
+
+-- Partition pruning check: only the partitions for the requested month should be listed
+-- EXPLAIN SELECT COUNT(*) FROM audit_logs WHERE timestamp >= '2025-01-01' AND timestamp < '2025-02-01';
+
+-- Once the application has been verified against the partitioned table:
+-- DROP TABLE audit_logs_unpartitioned;
+
+-- The old row-by-row cleanup procedure is replaced by partition drops
+DROP PROCEDURE IF EXISTS CleanupOldAuditLogs;
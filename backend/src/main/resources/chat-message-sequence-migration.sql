@@ -0,0 +1,19 @@
+-- Chat Message Sequence Migration Script
+-- Adds the per-room sequence number assigned to chat messages before they are broadcast
+-- (ChatSequenceAllocator) and numbers the existing messages in send order. Run the backfill
+-- before the application starts so new messages continue from the stored maximum.
+
+ALTER TABLE message ADD COLUMN room_sequence BIGINT NULL;
+
+-- Number each message by how many messages of its room have an id up to its own. Window
+-- functions are avoided so the script also runs on MySQL 5.7; the derived table is materialized,
+-- which lets the UPDATE read the table it changes.
+UPDATE message m
+JOIN (
+    SELECT m1.id,
+           (SELECT COUNT(*) FROM message m2 WHERE m2.chat_room_id = m1.chat_room_id AND m2.id <= m1.id) AS seq
+    FROM message m1
+) numbered ON numbered.id = m.id
+SET m.room_sequence = numbered.seq;
+
+ALTER TABLE message ADD CONSTRAINT uk_message_room_sequence UNIQUE (chat_room_id, room_sequence);
@@ -0,0 +1,35 @@
+-- Chat Room Member Migration Script
+-- Creates the per-user chat room table holding unread message counters and backfills the
+-- counters from the message table. The application keeps them current afterwards
+-- (UnreadCounterService); run the backfill while the chat is idle.
+
+CREATE TABLE IF NOT EXISTS chat_room_member (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    chat_room_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    unread_count INT NOT NULL DEFAULT 0,
+    
+    CONSTRAINT uk_chat_room_member UNIQUE (chat_room_id, user_id),
+    INDEX idx_chat_room_member_user (user_id)
+);
+
+-- One row per participant of every room
+INSERT IGNORE INTO chat_room_member (chat_room_id, user_id, unread_count)
+SELECT id, user1_id, 0 FROM chat_room
+UNION ALL
+SELECT id, user2_id, 0 FROM chat_room;
+
+-- Unread messages are those sent by the other participant and not yet read
+UPDATE chat_room_member crm
+JOIN (
+    SELECT m.chat_room_id, cr.user1_id AS user_id, COUNT(*) AS unread
+    FROM message m JOIN chat_room cr ON cr.id = m.chat_room_id
+    WHERE m.is_read = FALSE AND m.sender_id <> cr.user1_id
+    GROUP BY m.chat_room_id, cr.user1_id
+    UNION ALL
+    SELECT m.chat_room_id, cr.user2_id AS user_id, COUNT(*) AS unread
+    FROM message m JOIN chat_room cr ON cr.id = m.chat_room_id
+    WHERE m.is_read = FALSE AND m.sender_id <> cr.user2_id
+    GROUP BY m.chat_room_id, cr.user2_id
+) counts ON counts.chat_room_id = crm.chat_room_id AND counts.user_id = crm.user_id
+SET crm.unread_count = counts.unread;
@@ -0,0 +1,11 @@
+-- Course Grade Unique Key Migration
+-- Tables created by Hibernate lack the one-grade-per-student-per-course key declared in
+-- grading-system-migration.sql, so concurrent first grade events could insert two rows.
+-- Removes the duplicates (keeping the oldest row; the next grade change or regrade recomputes
+-- it) and adds the key. Skip this script if unique_student_course already exists.
+
+DELETE cg FROM course_grade cg
+JOIN course_grade older
+  ON older.student_id = cg.student_id AND older.course_id = cg.course_id AND older.id < cg.id;
+
+ALTER TABLE course_grade ADD CONSTRAINT unique_student_course UNIQUE (student_id, course_id);
@@ -0,0 +1,60 @@
+package com.sikhshan.interceptor;
+
+import com.sikhshan.dto.AuditEvent;
+import com.sikhshan.dto.AuthenticatedUser;
+import com.sikhshan.filter.CorrelationIdFilter;
+import com.sikhshan.service.AuditLogWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogInterceptorTest {
+
+	@Mock
+	private AuditLogWriter auditLogWriter;
+
+	@InjectMocks
+	private AuditLogInterceptor auditLogInterceptor;
+
+	@Test
+	void bearerTokenRequestsAreAuditedWithoutCreatingASession() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses/42");
+		request.addHeader("Authorization", "Bearer test-token");
+		request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, new AuthenticatedUser(7L, "STUDENT", "student@example.com"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		new CorrelationIdFilter().doFilter(request, response, new MockFilterChain());
+		auditLogInterceptor.preHandle(request, response, null);
+		auditLogInterceptor.afterCompletion(request, response, null, null);
+
+		ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+		verify(auditLogWriter).submit(event.capture());
+		assertNull(request.getSession(false));
+		assertNotNull(response.getHeader(CorrelationIdFilter.HEADER));
+		assertEquals(response.getHeader(CorrelationIdFilter.HEADER), event.getValue().getSessionId());
+	}
+
+	@Test
+	void callerSuppliedCorrelationIdIsKept() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+		request.addHeader(CorrelationIdFilter.HEADER, "req-123");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		new CorrelationIdFilter().doFilter(request, response, new MockFilterChain());
+
+		assertEquals("req-123", response.getHeader(CorrelationIdFilter.HEADER));
+		assertNull(request.getSession(false));
+	}
+}
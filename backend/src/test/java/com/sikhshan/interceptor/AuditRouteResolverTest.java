@@ -0,0 +1,72 @@
+package com.sikhshan.interceptor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AuditRouteResolverTest {
+
+	private final AuditRouteResolver resolver = new AuditRouteResolver();
+
+	@Test
+	void pathVariablesResolveToTheMappedActionAndResourceId() {
+		MockHttpServletRequest request = matched("PUT", "/api/courses/42", "/api/courses/{id}", Map.of("id", "42"));
+
+		AuditRouteResolver.Route route = resolver.resolve(request);
+
+		assertEquals("UPDATE_COURSE", route.getAction());
+		assertEquals("COURSE", route.getResourceType());
+		assertEquals(42L, resolver.resolveResourceId(request, route));
+	}
+
+	@Test
+	void nestedRoutesUseTheLastNumericVariable() {
+		MockHttpServletRequest request = matched("POST", "/api/assignments/7/submit/3",
+				"/api/assignments/{assignmentId}/submit/{studentId}", Map.of("assignmentId", "7", "studentId", "3"));
+
+		AuditRouteResolver.Route route = resolver.resolve(request);
+
+		assertEquals("SUBMIT_ASSIGNMENT", route.getAction());
+		assertEquals(3L, resolver.resolveResourceId(request, route));
+	}
+
+	@Test
+	void unmappedRoutesGetAGenericActionAndAreCompiledOnce() {
+		AuditRouteResolver.Route first = resolver.resolve("GET", "/api/quizzes/{id}/questions");
+		AuditRouteResolver.Route second = resolver.resolve("GET", "/api/quizzes/{id}/questions");
+
+		assertEquals("GET_QUIZ", first.getAction());
+		assertSame(first, second);
+	}
+
+	@Test
+	void requestsWithoutARoutePatternFallBackToTheRawUri() {
+		MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/users/15");
+
+		AuditRouteResolver.Route route = resolver.resolve(request);
+
+		assertEquals("USER", route.getResourceType());
+		assertEquals(15L, resolver.resolveResourceId(request, route));
+	}
+
+	@Test
+	void nonNumericVariablesAreNotResourceIds() {
+		MockHttpServletRequest request = matched("GET", "/api/users/search/alice", "/api/users/search/{name}",
+				Map.of("name", "alice"));
+
+		assertNull(resolver.resolveResourceId(request, resolver.resolve(request)));
+	}
+
+	private static MockHttpServletRequest matched(String method, String uri, String pattern, Map<String, String> variables) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+		return request;
+	}
+}
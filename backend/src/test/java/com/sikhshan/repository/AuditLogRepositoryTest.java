@@ -0,0 +1,66 @@
+package com.sikhshan.repository;
+
+import com.sikhshan.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+class AuditLogRepositoryTest {
+
+	@Autowired
+	private AuditLogRepository auditLogRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void searchTermMatchesPartsOfWords() {
+		auditLogRepository.save(new AuditLog(null, "CREATE_ASSIGNMENT", "Created assignment 5", "SUCCESS"));
+		auditLogRepository.save(new AuditLog(null, "DELETE_QUIZ", "Deleted quiz 3", "SUCCESS"));
+
+		Page<AuditLog> page = auditLogRepository.findWithFilters(null, null, null, null, null, null,
+				"ssignment", PageRequest.of(0, 10));
+
+		assertEquals(1, page.getTotalElements());
+		assertEquals("Created assignment 5", page.getContent().get(0).getDetails());
+		assertEquals(1, auditLogRepository.countWithFilters(null, null, null, null, null, null, "ssignment"));
+	}
+
+	@Test
+	void commonSearchTermsMatchEveryRowIncludingOldOnes() {
+		// More rows than any candidate cap, all containing the term
+		int rows = 10001;
+		List<AuditLog> logs = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			logs.add(new AuditLog(null, "GET_COURSES", "Request GET /api/courses " + i, "SUCCESS"));
+		}
+		auditLogRepository.saveAll(logs);
+
+		LocalDateTime lastYear = LocalDateTime.now().minusYears(1);
+		AuditLog oldest = logs.get(0);
+		oldest.setTimestamp(lastYear);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals(rows, auditLogRepository.countWithFilters(null, null, null, null, null, null, "request"));
+
+		Page<AuditLog> old = auditLogRepository.findWithFilters(null, null, null, null,
+				lastYear.minusDays(1), lastYear.plusDays(1), "Request", PageRequest.of(0, 10));
+		assertEquals(1, old.getTotalElements());
+		assertEquals(oldest.getId(), old.getContent().get(0).getId());
+	}
+}
@@ -0,0 +1,97 @@
+package com.sikhshan.restcontroller;
+
+import com.sikhshan.config.StatementCountingInspector;
+import com.sikhshan.dto.QuizResponse;
+import com.sikhshan.model.Course;
+import com.sikhshan.model.Quiz;
+import com.sikhshan.model.QuizAttempt;
+import com.sikhshan.model.Role;
+import com.sikhshan.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+@Import(QuizController.class)
+class QuizControllerTest {
+
+	@Autowired
+	private QuizController quizController;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void listingQuizzesIssuesOneListAndOneCountStatement() {
+		User instructor = user("instructor@example.com", Role.FACULTY);
+		User student = user("student@example.com", Role.STUDENT);
+		Course algebra = course("Algebra", instructor);
+		Course physics = course("Physics", instructor);
+
+		for (int i = 1; i <= 10; i++) {
+			Quiz quiz = new Quiz();
+			quiz.setName("Quiz " + i);
+			quiz.setStartDateTime(LocalDateTime.now().minusDays(1));
+			quiz.setDurationMinutes(30);
+			quiz.setCourse(i % 2 == 0 ? algebra : physics);
+			quiz.setInstructor(instructor);
+			entityManager.persist(quiz);
+			for (int a = 0; a < i % 3; a++) {
+				QuizAttempt attempt = new QuizAttempt();
+				attempt.setQuiz(quiz);
+				attempt.setStudent(student);
+				attempt.setStartedAt(LocalDateTime.now().minusHours(1));
+				entityManager.persist(attempt);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		StatementCountingInspector.reset();
+		ResponseEntity<List<QuizResponse>> response = quizController.getAllQuizzes();
+		int statements = StatementCountingInspector.current();
+
+		List<QuizResponse> body = response.getBody();
+		assertEquals(10, body.size());
+		for (QuizResponse quiz : body) {
+			int number = Integer.parseInt(quiz.getName().substring("Quiz ".length()));
+			assertEquals(number % 3, quiz.getAttemptCount());
+			assertEquals(number % 2 == 0 ? "Algebra" : "Physics", quiz.getCourseName());
+		}
+
+		// Quizzes with their courses and instructors, then one grouped attempt count; nothing per quiz
+		assertEquals(2, statements);
+	}
+
+	private User user(String email, Role role) {
+		User user = new User();
+		user.setEmail(email);
+		user.setName(email);
+		user.setPassword("secret");
+		user.setRole(role);
+		user.setCreatedAt(LocalDateTime.now());
+		return entityManager.persist(user);
+	}
+
+	private Course course(String name, User instructor) {
+		Course course = new Course();
+		course.setName(name);
+		course.setCode(name.toUpperCase());
+		course.setInstructor(instructor);
+		course.setCreatedAt(LocalDate.now());
+		return entityManager.persist(course);
+	}
+}
@@ -0,0 +1,83 @@
+package com.sikhshan.service;
+
+import com.sikhshan.config.ChatProperties;
+import com.sikhshan.repository.ChatRoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMembershipCacheTest {
+
+	@Mock
+	private ChatRoomRepository chatRoomRepository;
+
+	@Spy
+	private ChatProperties chatProperties = new ChatProperties();
+
+	@InjectMocks
+	private ChatMembershipCache chatMembershipCache;
+
+	@Test
+	void membershipIsLoadedOnceAndThenServedFromMemory() {
+		when(chatRoomRepository.findUserIdsById(5L)).thenReturn(List.<Object[]>of(new Object[] { 1L, 2L }));
+
+		assertTrue(chatMembershipCache.isMember(5L, 1L));
+		assertFalse(chatMembershipCache.isMember(5L, 3L));
+		assertEquals(2L, chatMembershipCache.getOtherMember(5L, 1L));
+
+		verify(chatRoomRepository, times(1)).findUserIdsById(5L);
+		assertEquals(1, chatMembershipCache.getMissCount());
+		assertEquals(2, chatMembershipCache.getHitCount());
+	}
+
+	@Test
+	void checkingAnUnknownRoomQueriesOnce() {
+		when(chatRoomRepository.findUserIdsById(7L)).thenReturn(Collections.emptyList());
+		when(chatRoomRepository.findUserIdsById(5L)).thenReturn(List.<Object[]>of(new Object[] { 1L, 2L }));
+
+		assertNull(chatMembershipCache.checkMember(7L, 1L));
+		assertEquals(Boolean.FALSE, chatMembershipCache.checkMember(5L, 3L));
+
+		verify(chatRoomRepository, times(1)).findUserIdsById(7L);
+		verify(chatRoomRepository, times(1)).findUserIdsById(5L);
+	}
+
+	@Test
+	void deletingAUserInvalidatesTheirRooms() {
+		chatMembershipCache.put(5L, 1L, 2L);
+		chatMembershipCache.put(6L, 3L, 4L);
+		when(chatRoomRepository.findUserIdsById(5L)).thenReturn(Collections.emptyList());
+
+		chatMembershipCache.invalidateUser(2L);
+
+		assertFalse(chatMembershipCache.exists(5L));
+		assertTrue(chatMembershipCache.isMember(6L, 3L));
+	}
+
+	@Test
+	void cacheStaysWithinItsMaximumSize() {
+		chatProperties.getMembership().setCacheMaxSize(10);
+
+		for (long room = 1; room <= 25; room++) {
+			chatMembershipCache.put(room, room, room + 100);
+		}
+
+		assertTrue(chatMembershipCache.size() <= 10);
+		assertTrue(chatMembershipCache.getEvictionCount() > 0);
+	}
+}
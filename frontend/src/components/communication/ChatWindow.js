@@ -2,6 +2,10 @@ import React, { useState, useEffect, useRef } from 'react';
 import { useWebSocket } from '../../contexts/WebSocketContext';
 import { getMessages, sendMessage, markMessagesAsRead, getDisplayName, formatMessageTime } from '../../api/chatApi';
 
+// Live messages are broadcast before they are stored, so they have no id until MESSAGE_PERSISTED
+// arrives; the room sequence identifies a message from the start
+const messageKey = (message) => `${message.chatRoomId}:${message.sequence ?? `id-${message.id}`}`;
+
 const ChatWindow = ({ chatRoom, currentUser, onBack }) => {
     const [messages, setMessages] = useState([]);
     const [newMessage, setNewMessage] = useState('');
@@ -31,7 +35,7 @@ const ChatWindow = ({ chatRoom, currentUser, onBack }) => {
                         console.log('➕ Adding new message from other user:', message.data);
                         setMessages(prev => {
                             // Check if message already exists to avoid duplicates
-                            const exists = prev.some(msg => msg.id === message.data.id);
+                            const exists = prev.some(msg => messageKey(msg) === messageKey(message.data));
                             if (!exists) {
                                 return [...prev, message.data];
                             }
@@ -42,10 +46,20 @@ const ChatWindow = ({ chatRoom, currentUser, onBack }) => {
                     } else {
                         console.log('✅ Message from current user, skipping (already added)');
                     }
+                } else if (message.type === 'MESSAGE_PERSISTED') {
+                    console.log('💾 Message stored:', message.data);
+                    setMessages(prev => prev.map(msg =>
+                        messageKey(msg) === messageKey(message.data) ? { ...msg, id: message.data.id } : msg
+                    ));
+                } else if (message.type === 'MESSAGE_FAILED') {
+                    console.log('⚠️ Message could not be stored:', message.data);
+                    setMessages(prev => prev.map(msg =>
+                        messageKey(msg) === messageKey(message.data) ? { ...msg, failed: true } : msg
+                    ));
                 } else if (message.type === 'MESSAGE_DELETED') {
                     console.log('🗑️ Message deleted:', message.data);
                     setMessages(prev => prev.map(msg => 
-                        msg.id === message.data ? { ...msg, isDeleted: true, content: 'User deleted message' } : msg
+                        msg.id != null && msg.id === message.data ? { ...msg, isDeleted: true, content: 'User deleted message' } : msg
                     ));
                 } else if (message.type === 'MESSAGE_READ') {
                     console.log('👁️ Message read:', message.data);
@@ -182,7 +196,7 @@ const ChatWindow = ({ chatRoom, currentUser, onBack }) => {
                 ) : (
                     messages.map((message) => (
                         <MessageItem
-                            key={message.id}
+                            key={messageKey(message)}
                             message={message}
                             isOwnMessage={message.sender.id === currentUser.id}
                             currentUser={currentUser}
@@ -240,6 +254,9 @@ const MessageItem = ({ message, isOwnMessage, currentUser }) => {
                 }`}>
                     {message.isDeleted ? 'User deleted message' : message.content}
                 </p>
+                {message.failed && (
+                    <p className="text-xs italic opacity-75">Not delivered</p>
+                )}
             </div>
         </div>
     );